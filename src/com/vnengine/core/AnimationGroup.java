@@ -0,0 +1,106 @@
+package com.vnengine.core;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Handle for animations started together by {@code parallel(...)} or one
+ * after another by {@code sequence(...)}. Call {@link #await()} to block the
+ * script until all of them are done.
+ *
+ * A group is a list of stages; all members of a stage run at the same time
+ * and the next stage starts once every member of the current one finished.
+ * Members are tweens or nested groups. State changes happen under the
+ * scheduler's lock. Waiting uses a latch rather than a monitor so a
+ * virtual script thread parks without pinning its carrier.
+ */
+public class AnimationGroup {
+    private final List<List<Object>> stages; // Each member is a Tween or an AnimationGroup
+    private int stage = -1;
+    private int remaining;
+    AnimationGroup parent;
+    private volatile boolean done = false;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile java.util.function.BooleanSupplier cancelled = () -> false;
+
+    AnimationGroup(List<List<Object>> stages) {
+        this.stages = stages;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Park the calling thread until every animation in the group finished.
+     * Returns at once if the group was empty, e.g. while skipping.
+     */
+    public void await() {
+        // Checked on both sides of the wait: abort() on load finishes the
+        // group, and the aborted script must stop rather than carry on
+        if (cancelled.getAsBoolean())
+            throw new RuntimeException("Script cancelled");
+        if (done)
+            return;
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Script cancelled");
+        }
+        if (cancelled.getAsBoolean())
+            throw new RuntimeException("Script cancelled");
+    }
+
+    void setCancelCheck(java.util.function.BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    // Start the next stage, skipping empty ones; completes the group after the last
+    void advance(AnimationScheduler scheduler) {
+        while (++stage < stages.size()) {
+            List<Object> members = stages.get(stage);
+            remaining = members.size();
+            if (remaining == 0)
+                continue;
+            for (Object member : members) {
+                if (member instanceof AnimationScheduler.Tween) {
+                    AnimationScheduler.Tween tween = (AnimationScheduler.Tween) member;
+                    tween.group = this;
+                    scheduler.schedule(tween);
+                } else {
+                    AnimationGroup child = (AnimationGroup) member;
+                    child.parent = this;
+                    scheduler.start(child);
+                }
+            }
+            return;
+        }
+        complete(scheduler);
+    }
+
+    void memberDone(AnimationScheduler scheduler) {
+        if (done)
+            return;
+        if (--remaining <= 0) {
+            advance(scheduler);
+        }
+    }
+
+    void complete(AnimationScheduler scheduler) {
+        if (done)
+            return;
+        done = true;
+        finished.countDown();
+        scheduler.groupDone(this);
+        if (parent != null) {
+            parent.memberDone(scheduler);
+        }
+    }
+
+    // Finish without starting the remaining stages, e.g. when a save is loaded
+    void abort() {
+        done = true;
+        finished.countDown();
+    }
+}
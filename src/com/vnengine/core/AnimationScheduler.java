@@ -0,0 +1,291 @@
+package com.vnengine.core;
+
+import com.vnengine.util.Easing;
+import com.vnengine.util.EasingFunction;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs every active tween from the engine's frame tick.
+ *
+ * Tweens live in one flat array and are advanced in a single pass per frame
+ * on the EDT, before the window paints, so everything that moves in a frame
+ * moves by the same clock. Each tween has a key; starting a tween replaces
+ * the one with the same key, and cancelling just removes the entry.
+ *
+ * While a group is being built on the script thread, added tweens are
+ * collected into the group instead of starting (see {@link #group}).
+ */
+public class AnimationScheduler {
+
+    /**
+     * One animated value. Subclasses capture their start value in
+     * {@link #begin()}, which runs on the first tick, and apply the eased
+     * progress in {@link #update(float)}. All hooks run on the EDT.
+     */
+    public abstract static class Tween {
+        final String key;
+        final long durationNanos;
+        final EasingFunction easing;
+        long startNanos = -1;
+        AnimationGroup group; // Notified when the tween ends
+        boolean uninterruptible; // Ignored by completeAll(long)
+
+        protected Tween(String key, int durationMs, EasingFunction easing) {
+            this.key = key;
+            this.durationNanos = Math.max(0, durationMs) * 1_000_000L;
+            this.easing = easing != null ? easing : Easing.LINEAR;
+        }
+
+        protected void begin() {
+        }
+
+        protected abstract void update(float progress);
+
+        // Called once with the end value when the tween runs out
+        protected void finish() {
+            update(1f);
+        }
+
+        // Called when the tween is removed before it finished
+        protected void cancelled() {
+        }
+    }
+
+    private Tween[] tweens = new Tween[16];
+    private int count = 0;
+    private boolean ticking = false;
+    private final List<Tween> pending = new ArrayList<>(); // Scheduled during a tick
+    private final List<AnimationGroup> groups = new ArrayList<>(); // Running groups
+    private final ThreadLocal<List<Object>> collector = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> protecting = new ThreadLocal<>();
+
+    /**
+     * Start a tween, replacing any running tween with the same key. Inside a
+     * group being built, the tween is added to the group instead.
+     */
+    public void add(Tween tween) {
+        if (protecting.get() != null) {
+            tween.uninterruptible = true;
+        }
+        List<Object> members = collector.get();
+        if (members != null) {
+            members.add(tween);
+            return;
+        }
+        schedule(tween);
+    }
+
+    synchronized void schedule(Tween tween) {
+        if (ticking) {
+            pending.add(tween); // Don't disturb the pass in progress
+            return;
+        }
+        cancel(tween.key);
+        if (count == tweens.length) {
+            Tween[] grown = new Tween[tweens.length * 2];
+            System.arraycopy(tweens, 0, grown, 0, count);
+            tweens = grown;
+        }
+        tweens[count++] = tween;
+    }
+
+    /**
+     * Build a group from {@code steps}. Each step runs right away on the
+     * calling thread and the tweens it adds form one stage; with
+     * {@code sequential} set the stages run one after another, otherwise all
+     * at once. A group built inside another group's step becomes a member of
+     * that step.
+     */
+    public AnimationGroup group(boolean sequential, Runnable... steps) {
+        List<Object> outer = collector.get();
+        List<List<Object>> stages = new ArrayList<>();
+        List<Object> members = new ArrayList<>();
+        try {
+            for (Runnable step : steps) {
+                if (sequential) {
+                    members = new ArrayList<>();
+                }
+                collector.set(members);
+                step.run();
+                if (sequential || stages.isEmpty()) {
+                    stages.add(members);
+                }
+            }
+        } finally {
+            collector.set(outer);
+        }
+
+        AnimationGroup group = new AnimationGroup(stages);
+        if (outer != null) {
+            outer.add(group);
+        } else {
+            start(group);
+        }
+        return group;
+    }
+
+    /**
+     * Run {@code block}; the tweens it adds play out in full even when
+     * {@link #completeAll(long)} is called.
+     */
+    public void uninterruptible(Runnable block) {
+        Boolean outer = protecting.get();
+        protecting.set(Boolean.TRUE);
+        try {
+            block.run();
+        } finally {
+            if (outer == null) {
+                protecting.remove();
+            }
+        }
+    }
+
+    synchronized void start(AnimationGroup group) {
+        groups.add(group);
+        group.advance(this);
+    }
+
+    synchronized void groupDone(AnimationGroup group) {
+        groups.remove(group);
+    }
+
+    public synchronized void cancel(String key) {
+        for (int i = 0; i < count; i++) {
+            if (tweens[i].key.equals(key)) {
+                Tween removed = tweens[i];
+                System.arraycopy(tweens, i + 1, tweens, i, count - i - 1);
+                tweens[--count] = null;
+                if (removed.startNanos >= 0) {
+                    removed.cancelled();
+                }
+                if (removed.group != null) {
+                    removed.group.memberDone(this);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drop every tween and release everything waiting on a group.
+     */
+    public synchronized void cancelAll() {
+        for (int i = 0; i < count; i++) {
+            if (tweens[i].startNanos >= 0) {
+                tweens[i].cancelled();
+            }
+            tweens[i] = null;
+        }
+        count = 0;
+        pending.clear();
+        for (AnimationGroup group : groups) {
+            group.abort();
+        }
+        groups.clear();
+    }
+
+    /**
+     * Jump every tween that is not uninterruptible to its end state, including
+     * later stages of groups those tweens belong to. Call on the EDT.
+     *
+     * @return true if anything was completed
+     */
+    public boolean completeAll(long now) {
+        return completeAll(now, false);
+    }
+
+    /**
+     * Like {@link #completeAll(long)}; with {@code everything} set,
+     * uninterruptible tweens are completed too.
+     */
+    public synchronized boolean completeAll(long now, boolean everything) {
+        boolean any = false;
+        // Each round may start the next stage of a sequence; bounded in case of cycles
+        for (int round = 0; round < 256; round++) {
+            List<Tween> completed = new ArrayList<>();
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (tweens[i].uninterruptible && !everything) {
+                    tweens[kept++] = tweens[i];
+                } else {
+                    completed.add(tweens[i]);
+                }
+            }
+            for (int i = kept; i < count; i++) {
+                tweens[i] = null;
+            }
+            count = kept;
+            if (completed.isEmpty())
+                break;
+
+            any = true;
+            for (Tween tween : completed) {
+                if (tween.startNanos < 0) {
+                    tween.startNanos = now;
+                    tween.begin();
+                }
+                tween.finish();
+                if (tween.group != null) {
+                    tween.group.memberDone(this);
+                }
+            }
+        }
+        return any;
+    }
+
+    public synchronized boolean isActive(String key) {
+        for (int i = 0; i < count; i++) {
+            if (tweens[i].key.equals(key))
+                return true;
+        }
+        return false;
+    }
+
+    public synchronized boolean isEmpty() {
+        return count == 0 && pending.isEmpty();
+    }
+
+    /**
+     * Advance every tween to {@code now} in one pass, dropping the ones that
+     * finished.
+     */
+    public synchronized void tick(long now) {
+        ticking = true;
+        try {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                Tween tween = tweens[i];
+                if (tween.startNanos < 0) {
+                    tween.startNanos = now;
+                    tween.begin();
+                }
+                long elapsed = now - tween.startNanos;
+                if (elapsed >= tween.durationNanos) {
+                    tween.finish();
+                    if (tween.group != null) {
+                        tween.group.memberDone(this); // May queue the group's next stage
+                    }
+                    continue;
+                }
+                tween.update(tween.easing.apply((float) elapsed / tween.durationNanos));
+                tweens[kept++] = tween;
+            }
+            for (int i = kept; i < count; i++) {
+                tweens[i] = null;
+            }
+            count = kept;
+        } finally {
+            ticking = false;
+        }
+
+        // Tweens queued by finished stages start on the next frame
+        if (!pending.isEmpty()) {
+            List<Tween> queued = new ArrayList<>(pending);
+            pending.clear();
+            for (Tween tween : queued) {
+                schedule(tween);
+            }
+        }
+    }
+}
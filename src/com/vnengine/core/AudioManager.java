@@ -1,19 +1,53 @@
 package com.vnengine.core;
 
 import javax.sound.sampled.*;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Plays music and sound effects. Calls return at once: playback runs in
+ * order on its own thread, and files are decoded to PCM in the background,
+ * ahead of time when the prefetcher asks for them (see {@link #preloadMusic}
+ * and {@link #preloadSound}), so opening a clip is only a copy.
+ */
 public class AudioManager {
-    private Clip currentMusic;
-    private Map<String, Clip> sfxCache = new HashMap<>();
+    private static final int MAX_PRELOADED_MUSIC = 3; // Whole tracks are large; keep only the next few
 
-    private String currentMusicName;
+    private volatile Clip currentMusic; // Only changed on the player thread
+    private volatile String currentMusicName;
 
-    private float musicVolume = 0.8f;
-    private float sfxVolume = 1.0f;
+    private volatile float musicVolume = 0.8f;
+    private volatile float sfxVolume = 1.0f;
+
+    // Decoded audio, ready to open as a clip
+    private static class Pcm {
+        final AudioFormat format;
+        final byte[] data;
+
+        Pcm(AudioFormat format, byte[] data) {
+            this.format = format;
+            this.data = data;
+        }
+    }
+
+    private final ExecutorService player = Executors.newSingleThreadExecutor(r -> daemon(r, "audio-player"));
+    private final ExecutorService decoder = Executors.newSingleThreadExecutor(r -> daemon(r, "audio-loader"));
+    private final Map<String, CompletableFuture<Pcm>> preloadedMusic = new LinkedHashMap<>(); // Guarded by itself
+    private final Map<String, CompletableFuture<Pcm>> sfxCache = new ConcurrentHashMap<>();
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
 
     public boolean isPlaying(String name) {
         return currentMusic != null && currentMusic.isRunning() &&
@@ -22,9 +56,11 @@ public class AudioManager {
 
     public void setMusicVolume(float volume) {
         this.musicVolume = volume;
-        if (currentMusic != null) {
-            setVolume(currentMusic, musicVolume);
-        }
+        player.execute(() -> {
+            if (currentMusic != null) {
+                setVolume(currentMusic, musicVolume);
+            }
+        });
     }
 
     public void setSfxVolume(float volume) {
@@ -56,17 +92,62 @@ public class AudioManager {
     }
 
     public void playMusic(String name, boolean loop) {
+        player.execute(() -> startMusic(name, loop));
+    }
+
+    /**
+     * Decode a music track in the background so {@link #playMusic} can start
+     * it without reading the file.
+     *
+     * @return false if there is no such track
+     */
+    public boolean preloadMusic(String name) {
+        File audioFile = findAudioFile("resources/audio/music/" + name);
+        if (audioFile == null || isMp3(audioFile))
+            return audioFile != null;
+        synchronized (preloadedMusic) {
+            if (name.equals(currentMusicName) || preloadedMusic.containsKey(name))
+                return true;
+            preloadedMusic.put(name, CompletableFuture.supplyAsync(() -> decode(audioFile), decoder));
+            if (preloadedMusic.size() > MAX_PRELOADED_MUSIC) {
+                String eldest = preloadedMusic.keySet().iterator().next();
+                preloadedMusic.remove(eldest);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decode a sound effect in the background; it stays decoded for later
+     * {@link #playSound} calls.
+     *
+     * @return false if there is no such sound
+     */
+    public boolean preloadSound(String name) {
+        File audioFile = findAudioFile("resources/audio/sfx/" + name);
+        if (audioFile == null)
+            return false;
+        sfxCache.computeIfAbsent(name, n -> CompletableFuture.supplyAsync(() -> decode(audioFile), decoder));
+        return true;
+    }
+
+    // On the player thread
+    private void startMusic(String name, boolean loop) {
         // If already playing this track, do nothing
         if (currentMusic != null && currentMusic.isRunning() && name.equals(currentMusicName)) {
             return;
         }
 
-        stopMusic();
+        stopNow();
+        CompletableFuture<Pcm> preloaded;
+        synchronized (preloadedMusic) {
+            preloaded = preloadedMusic.remove(name); // The clip keeps its own copy
+        }
         try {
             File audioFile = findAudioFile("resources/audio/music/" + name);
             if (audioFile != null) {
                 // Check for MP3
-                if (audioFile.getName().toLowerCase().endsWith(".mp3")) {
+                if (isMp3(audioFile)) {
                     javax.swing.JOptionPane.showMessageDialog(null,
                             "MP3 format is not supported by standard Java Sound.\nPlease convert '" + name
                                     + "' to WAV.",
@@ -75,9 +156,14 @@ public class AudioManager {
                     return;
                 }
 
-                AudioInputStream audioStream = AudioSystem.getAudioInputStream(audioFile);
-                currentMusic = AudioSystem.getClip();
-                currentMusic.open(audioStream);
+                Pcm pcm = preloaded != null ? preloaded.join() : decode(audioFile);
+                if (pcm == null) {
+                    unsupported(name);
+                    return;
+                }
+                Clip clip = AudioSystem.getClip();
+                clip.open(pcm.format, pcm.data, 0, pcm.data.length);
+                currentMusic = clip;
 
                 // Apply volume
                 setVolume(currentMusic, musicVolume);
@@ -91,18 +177,24 @@ public class AudioManager {
             } else {
                 System.err.println("Music file not found: " + name);
             }
-        } catch (UnsupportedAudioFileException e) {
-            System.err.println("Unsupported Audio Format: " + name);
-            javax.swing.JOptionPane.showMessageDialog(null,
-                    "The audio file '" + name + "' is not supported.\nTry using standard WAV (16-bit PCM).",
-                    "Audio Error", javax.swing.JOptionPane.ERROR_MESSAGE);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    private void unsupported(String name) {
+        System.err.println("Unsupported Audio Format: " + name);
+        javax.swing.JOptionPane.showMessageDialog(null,
+                "The audio file '" + name + "' is not supported.\nTry using standard WAV (16-bit PCM).",
+                "Audio Error", javax.swing.JOptionPane.ERROR_MESSAGE);
+    }
+
     public void stopMusic() {
-        if (currentMusic != null && currentMusic.isRunning()) {
+        player.execute(this::stopNow);
+    }
+
+    private void stopNow() {
+        if (currentMusic != null) {
             currentMusic.stop();
             currentMusic.close();
         }
@@ -111,25 +203,69 @@ public class AudioManager {
     }
 
     public void playSound(String name) {
-        try {
-            // optimizations: cache sfx clips? For now, load fresh just to be safe with
-            // overlaps
-            // or better, check cache.
-            File audioFile = findAudioFile("resources/audio/sfx/" + name);
-            if (audioFile != null) {
-                AudioInputStream audioStream = AudioSystem.getAudioInputStream(audioFile);
+        player.execute(() -> {
+            if (!preloadSound(name)) {
+                System.err.println("SFX file not found: " + name);
+                return;
+            }
+            try {
+                Pcm pcm = sfxCache.get(name).join();
+                if (pcm == null)
+                    return; // Reported when it was decoded
+                // A new clip each time, so the same sound can overlap itself
                 Clip clip = AudioSystem.getClip();
-                clip.open(audioStream);
+                clip.open(pcm.format, pcm.data, 0, pcm.data.length);
+                clip.addLineListener(event -> {
+                    if (event.getType() == LineEvent.Type.STOP) {
+                        clip.close();
+                    }
+                });
 
                 setVolume(clip, sfxVolume);
 
                 clip.start();
-            } else {
-                System.err.println("SFX file not found: " + name);
+            } catch (Exception e) {
+                e.printStackTrace();
             }
-        } catch (Exception e) {
+        });
+    }
+
+    // Read a whole file as PCM; null if Java Sound cannot
+    private static Pcm decode(File file) {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(file);
+                AudioInputStream pcm = toPcm(in)) {
+            return new Pcm(pcm.getFormat(), readAll(pcm));
+        } catch (UnsupportedAudioFileException | IllegalArgumentException e) {
+            System.err.println("Unsupported Audio Format: " + file.getName());
+        } catch (IOException e) {
             e.printStackTrace();
         }
+        return null;
+    }
+
+    // Compressed formats are converted to 16-bit signed PCM; PCM is returned as is
+    private static AudioInputStream toPcm(AudioInputStream in) {
+        AudioFormat format = in.getFormat();
+        if (format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED
+                || format.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED)
+            return in;
+        AudioFormat target = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+        return AudioSystem.getAudioInputStream(target, in);
+    }
+
+    // InputStream.readAllBytes needs Java 9
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean isMp3(File file) {
+        return file.getName().toLowerCase().endsWith(".mp3");
     }
 
     private File findAudioFile(String basePath) {
@@ -0,0 +1,174 @@
+package com.vnengine.core;
+
+import com.vnengine.util.Easing;
+import com.vnengine.util.EasingFunction;
+import java.awt.geom.AffineTransform;
+
+/**
+ * In-scene camera for the main window.
+ * Zoom, pan and shake are tweened against the animation clock and sampled by
+ * the renderer once per frame as a single transform for the background and
+ * character layers. Pan coordinates use the same 1280x720 base units as
+ * character positions.
+ */
+public class Camera {
+    private static final long SHAKE_STEP_NANOS = 30_000_000L; // New shake offset every 30ms
+
+    // Current (sampled) values, read by the EDT
+    private volatile double zoom = 1.0;
+    private volatile double x = 0;
+    private volatile double y = 0;
+    private volatile double shakeX = 0;
+    private volatile double shakeY = 0;
+
+    // Zoom tween
+    private double zoomFrom = 1.0, zoomTo = 1.0;
+    private long zoomStart, zoomDuration;
+    private EasingFunction zoomEasing;
+
+    // Pan tween
+    private double panFromX, panFromY, panToX, panToY;
+    private long panStart, panDuration;
+    private EasingFunction panEasing;
+
+    // Shake
+    private int shakeIntensity;
+    private long shakeStart, shakeDuration;
+
+    public synchronized void zoomTo(double target, int durationMs, EasingFunction easing, long now) {
+        zoomFrom = zoom;
+        zoomTo = target;
+        zoomStart = now;
+        zoomDuration = Math.max(0, durationMs) * 1_000_000L;
+        zoomEasing = easing != null ? easing : Easing.LINEAR;
+        if (zoomDuration == 0) {
+            zoom = target;
+        }
+    }
+
+    public synchronized void panTo(double targetX, double targetY, int durationMs, EasingFunction easing, long now) {
+        panFromX = x;
+        panFromY = y;
+        panToX = targetX;
+        panToY = targetY;
+        panStart = now;
+        panDuration = Math.max(0, durationMs) * 1_000_000L;
+        panEasing = easing != null ? easing : Easing.LINEAR;
+        if (panDuration == 0) {
+            x = targetX;
+            y = targetY;
+        }
+    }
+
+    public synchronized void shake(int intensity, int durationMs, long now) {
+        shakeIntensity = intensity;
+        shakeStart = now;
+        shakeDuration = Math.max(0, durationMs) * 1_000_000L;
+    }
+
+    public synchronized void stopShake() {
+        shakeDuration = 0;
+        shakeX = shakeY = 0;
+    }
+
+    /**
+     * Snap every value to its resting state without animation.
+     */
+    public synchronized void reset() {
+        zoomDuration = panDuration = shakeDuration = 0;
+        zoom = zoomTo = 1.0;
+        x = y = panToX = panToY = 0;
+        shakeX = shakeY = 0;
+    }
+
+    /**
+     * Advance all camera tweens to the given clock time. Called once per frame
+     * before painting.
+     */
+    public synchronized void update(long now) {
+        if (zoomDuration > 0) {
+            float progress = (float) (now - zoomStart) / zoomDuration;
+            if (progress >= 1f) {
+                zoom = zoomTo;
+                zoomDuration = 0;
+            } else {
+                zoom = zoomFrom + (zoomTo - zoomFrom) * zoomEasing.apply(Math.max(0f, progress));
+            }
+        }
+
+        if (panDuration > 0) {
+            float progress = (float) (now - panStart) / panDuration;
+            if (progress >= 1f) {
+                x = panToX;
+                y = panToY;
+                panDuration = 0;
+            } else {
+                float eased = panEasing.apply(Math.max(0f, progress));
+                x = panFromX + (panToX - panFromX) * eased;
+                y = panFromY + (panToY - panFromY) * eased;
+            }
+        }
+
+        if (shakeDuration > 0) {
+            long elapsed = now - shakeStart;
+            if (elapsed >= shakeDuration) {
+                shakeX = shakeY = 0;
+                shakeDuration = 0;
+            } else {
+                // Offsets are a pure function of the clock so every frame inside
+                // the same 30ms step agrees, and replays shake identically.
+                long step = elapsed / SHAKE_STEP_NANOS;
+                double decay = 1.0 - (double) elapsed / shakeDuration;
+                shakeX = noise(step * 2) * shakeIntensity * decay;
+                shakeY = noise(step * 2 + 1) * shakeIntensity * decay;
+            }
+        }
+    }
+
+    // Tweens are started on the script thread and polled by the EDT
+    public synchronized boolean isAnimating() {
+        return zoomDuration > 0 || panDuration > 0 || shakeDuration > 0;
+    }
+
+    public boolean isIdentity() {
+        return zoom == 1.0 && x == 0 && y == 0 && shakeX == 0 && shakeY == 0;
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Build the view transform for a layer.
+     *
+     * @param width  panel width in pixels
+     * @param height panel height in pixels
+     * @param scale  base-to-pixel scale factor of the panel
+     * @param depth  parallax factor of the layer (1.0 moves with the camera)
+     */
+    public AffineTransform getTransform(int width, int height, double scale, double depth) {
+        double z = zoom;
+        double cx = width / 2.0;
+        double cy = height / 2.0;
+        AffineTransform t = new AffineTransform();
+        t.translate(cx + shakeX * scale, cy + shakeY * scale);
+        t.scale(z, z);
+        t.translate(-cx - x * scale * depth, -cy - y * scale * depth);
+        return t;
+    }
+
+    // Hash-based value noise in [-1, 1] for a step number
+    static double noise(long n) {
+        n = (n << 13) ^ n;
+        long v = (n * (n * n * 15731L + 789221L) + 1376312589L) & 0x7fffffffL;
+        return 1.0 - v / 1073741824.0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.vnengine.core;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Script state at the last {@code checkpoint(id)} the story passed. A save
+ * carries the latest one, so a load can jump straight to that point of the
+ * script and only replay the few steps between it and the save.
+ */
+public class Checkpoint implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final String id;
+    public final int step; // Steps taken before the checkpoint
+    public final VariableStore variables;
+    public final int backlogSize; // History entries before the checkpoint
+    public final int choiceCount; // Menu answers before the checkpoint
+    public final boolean nvlMode;
+    public final List<String[]> nvlLines; // NVL page at the checkpoint; not copied, so pass a copy
+
+    public Checkpoint(String id, int step, VariableStore variables, int backlogSize, int choiceCount,
+            boolean nvlMode, List<String[]> nvlLines) {
+        this.id = id;
+        this.step = step;
+        this.variables = variables;
+        this.backlogSize = backlogSize;
+        this.choiceCount = choiceCount;
+        this.nvlMode = nvlMode;
+        this.nvlLines = nvlLines;
+    }
+}
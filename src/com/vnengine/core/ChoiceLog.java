@@ -0,0 +1,61 @@
+package com.vnengine.core;
+
+import java.util.Arrays;
+
+/**
+ * Every menu answer of the current playthrough, in order. Saves store the
+ * log, and while a load replays the script each {@code menu(...)} takes its
+ * answer from here instead of asking again.
+ */
+public class ChoiceLog {
+    private int[] choices = new int[16];
+    private int size = 0;
+    private int cursor = 0; // Next answer to replay
+
+    public ChoiceLog() {
+    }
+
+    /**
+     * A log to replay, starting after the first {@code replayFrom} answers.
+     */
+    public ChoiceLog(int[] recorded, int replayFrom) {
+        if (recorded != null) {
+            choices = Arrays.copyOf(recorded, Math.max(16, recorded.length));
+            size = recorded.length;
+        }
+        cursor = Math.max(0, Math.min(replayFrom, size));
+    }
+
+    public synchronized void append(int choice) {
+        if (cursor < size) {
+            size = cursor; // Answering differently than the log; what came after no longer happened
+        }
+        if (size == choices.length) {
+            choices = Arrays.copyOf(choices, size * 2);
+        }
+        choices[size++] = choice;
+        cursor = size;
+    }
+
+    /**
+     * @return the next recorded answer, or -1 once the log is used up
+     */
+    public synchronized int replay() {
+        return cursor < size ? choices[cursor++] : -1;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the answers given so far in this run (replayed or new)
+     */
+    public synchronized int position() {
+        return cursor;
+    }
+
+    public synchronized int[] toArray() {
+        return Arrays.copyOf(choices, cursor);
+    }
+}
@@ -0,0 +1,12 @@
+package com.vnengine.core;
+
+/**
+ * Answers menus instead of the player, e.g. for a tool running a script
+ * without a window.
+ */
+public interface ChoiceSource {
+    /**
+     * @return the index of the option to pick
+     */
+    int choose(String[] options);
+}
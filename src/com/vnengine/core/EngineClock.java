@@ -0,0 +1,19 @@
+package com.vnengine.core;
+
+/**
+ * Time source for everything that animates: tweens, the text reveal, auto
+ * mode, shakes and script pauses. {@link SystemClock} follows real time;
+ * {@link ManualClock} only moves when told to, so replays and tests can run
+ * faster than real time and give identical results.
+ */
+public interface EngineClock {
+    /**
+     * @return monotonic time in nanoseconds
+     */
+    long nanoTime();
+
+    /**
+     * Block the calling thread until the clock reaches {@code deadline}.
+     */
+    void sleepUntil(long deadline) throws InterruptedException;
+}
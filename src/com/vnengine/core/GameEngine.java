@@ -12,49 +12,116 @@ public class GameEngine {
     private GameWindow window;
     private Map<String, SubWindow> subWindows = new HashMap<>(); // ID -> SubWindow instance
     private String currentBackground;
-    private Map<String, String> visibleCharacters; // Name -> ImagePath
-    private Map<String, Double> characterScales; // Name -> Scale factor
-    private Map<String, Point> characterPositions; // Name -> (x, y)
+    private LayeredBackground backgroundLayers; // Non-null when a parallax background is shown
+    private long backgroundLayersStart; // Auto-scroll origin
+    // Characters on stage. Replaced, never mutated: the window reads one snapshot per frame
+    private volatile SceneGraph scene = SceneGraph.EMPTY;
+    private final Object sceneLock = new Object(); // Serializes writers only
     private Point customDialogPosition = null;
+    private final Camera camera = new Camera();
+
+    // Idle animations: sprite -> animation set, and per-character playback (EDT only)
+    private Map<String, IdleAnimation> idleAnimations = new java.util.concurrent.ConcurrentHashMap<>();
+    private final Map<String, IdleState> idleStates = new HashMap<>();
+
+    // Sprite-sheet animations: entity name -> playback, and last shown frame (EDT only)
+    private Map<String, SpriteAnimation> animations = new java.util.concurrent.ConcurrentHashMap<>();
+    private final Map<String, Integer> animationFrames = new HashMap<>();
     private String currentWindowTitle = "Java Visual Novel Engine";
 
-    private String currentSpeaker;
-    private String currentDialogue;
+    private volatile String currentSpeaker;
+    private volatile String currentDialogue;
 
     private AudioManager audioManager;
 
     // Simple state
-    private volatile boolean waitingForClick = false;
-    private volatile boolean scriptCancelled = false; // Flag to stop script on load
-    private volatile boolean autoMode = false;
 
-    // Animation tracking - to cancel previous animations before starting new ones
-    private Map<String, Thread> characterAnimations = new HashMap<>(); // Character name -> position animation thread
-    private Map<String, Thread> characterScaleAnimations = new HashMap<>(); // Character name -> scale animation thread
-    private Thread windowAnimation = null; // Position animation
-    private Thread windowResizeAnimation = null; // Resize animation
-    private Thread dialogAnimation = null;
+    // Player input for the script thread; events name the line they were aimed at
+    private final InputQueue input = new InputQueue(64);
+    private volatile int lineSeq = 0; // Bumped for every line, menu or movie that waits for the player
+    private volatile int shownLine = 0; // lineSeq as of the last frame; clicks are aimed at this
+    private long advanceClickNanos = 0; // When the click that ended the last line was posted
+    private volatile boolean autoMode = false;
+    private volatile boolean skipMode = false; // Toggled by the player
+    private volatile boolean skipHeld = false; // Ctrl held down
+    private boolean skippedLinePending = false; // Fast-forwarded line not on screen yet; guarded by nvlLines
+    private volatile boolean nvlMode = false; // Lines accumulate on a full-screen page
+    private final java.util.List<String[]> nvlLines = new java.util.ArrayList<>(); // Current page, for loads
+    private int nvlLineCount = 0; // NVL lines ever added; nvlLines are the last of them. Guarded by nvlLines
+    private volatile String currentMovie = null; // Cutscene the window should be playing
+    private volatile double currentMovieFps = 0;
+
+    // All tweens, advanced by tick(). Keys: a new tween replaces the running one with the same key
+    private final AnimationScheduler animator = new AnimationScheduler();
+    private static final String WINDOW_POSITION = "window.position";
+    // Geometry requested by animations and commands, applied once per frame by tick()
+    private final PendingBounds windowBounds = new PendingBounds();
+    private final Map<String, PendingBounds> subWindowBounds = new java.util.concurrent.ConcurrentHashMap<>();
+    private static final String WINDOW_SIZE = "window.size";
+    private static final String DIALOG_POSITION = "dialog.position";
+    private static final String CAMERA_ZOOM = "camera.zoom";
+    private static final String CAMERA_PAN = "camera.pan";
+    private static final String CAMERA_SHAKE = "camera.shake";
+    private static final String CHARACTER_POSITION = ".position"; // Suffixes of characterKey(name)
+    private static final String CHARACTER_SCALE = ".scale";
+    private static final String CHARACTER_ALPHA = ".alpha";
+
+    // Tween key prefix of a character, kept apart from the fixed keys above
+    // whatever the character is called (e.g. "window" or "dialog")
+    private static String characterKey(String name) {
+        return "character:" + name;
+    }
 
     public GameEngine() {
-        this.visibleCharacters = new HashMap<>();
-        this.characterPositions = new HashMap<>();
-        this.characterScales = new HashMap<>(); // Init
-        this.audioManager = new AudioManager();
-        this.window = new GameWindow(this);
+        this(false);
+    }
+
+    /**
+     * @param headless run without a window, audio or read history, e.g.
+     *                 for tools: lines don't wait for clicks, animations
+     *                 finish at once, menus are answered by a
+     *                 {@link ChoiceSource}, and time stands still on a
+     *                 {@link ManualClock}, so every run gives the same result
+     */
+    public GameEngine(boolean headless) {
+        if (headless) {
+            this.clock = new ManualClock();
+        } else {
+            this.audioManager = new AudioManager();
+            this.window = new GameWindow(this);
+            this.readTracker = ReadTracker.getInstance();
+            if (Boolean.getBoolean("vn.debug.input")) {
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println("Input: " + getInputStats())));
+            }
+        }
         applySettings();
     }
 
+    public boolean isHeadless() {
+        return window == null;
+    }
+
+    private void repaint() {
+        if (window != null) {
+            window.repaint();
+        }
+    }
+
     public void applySettings() {
         SettingsManager settings = SettingsManager.getInstance();
-        audioManager.setMusicVolume(settings.getMusicVolume());
-        audioManager.setSfxVolume(settings.getSfxVolume());
+        if (audioManager != null) {
+            audioManager.setMusicVolume(settings.getMusicVolume());
+            audioManager.setSfxVolume(settings.getSfxVolume());
+        }
         if (window != null) {
             window.applySettings();
         }
     }
 
     // History
-    public static class LogEntry {
+    public static class LogEntry implements java.io.Serializable {
+        private static final long serialVersionUID = 1L;
+
         public String speaker;
         public String text;
 
@@ -64,23 +131,50 @@ public class GameEngine {
         }
     }
 
-    private java.util.List<LogEntry> backlog = new java.util.ArrayList<>();
+    private volatile java.util.List<LogEntry> backlog = new java.util.ArrayList<>();
+
+    // --- Clock ---
+
+    // Every animation reads time from here; swap in a ManualClock to step time by hand
+    private volatile EngineClock clock = new SystemClock();
+
+    public EngineClock getClock() {
+        return clock;
+    }
+
+    public void setClock(EngineClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Block the script thread for {@code ms} of engine clock time.
+     */
+    public void sleep(int ms) {
+        if (window == null)
+            return;
+        if (isFastForwarding() && !inTrack())
+            return; // Tracks keep their own pace while the story skips
+        EngineClock c = clock;
+        try {
+            c.sleepUntil(c.nanoTime() + ms * 1_000_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (isCancelled())
+                throw new RuntimeException("Script cancelled"); // Stopped by a load or stopTrack
+        }
+    }
 
     // --- Scripting Commands ---
 
     public void setWindowSize(int width, int height) {
         if (isSkipping())
             return; // Don't resize during replay
-        SwingUtilities.invokeLater(() -> {
-            window.setSize(width, height);
-            window.setLocationRelativeTo(null);
-            window.repaint();
-        });
+        windowBounds.setSizeCentered(width, height);
 
     }
 
     public void setFullscreen(boolean fullscreen) {
-        if (isSkipping())
+        if (isSkipping() || window == null)
             return;
         SwingUtilities.invokeLater(() -> {
             window.setFullscreen(fullscreen);
@@ -91,16 +185,263 @@ public class GameEngine {
         if (isSkipping())
             return;
         this.currentWindowTitle = title;
-        SwingUtilities.invokeLater(() -> {
-            window.setTitle(title);
-        });
+        if (window != null) {
+            SwingUtilities.invokeLater(() -> {
+                window.setTitle(title);
+            });
+        }
     }
 
     public void setBackground(String imagePath) {
+        checkCancelled();
         if (isSkipping())
             return; // Maintain snapshot background
+        used("background", imagePath);
         this.currentBackground = imagePath;
-        window.repaint();
+        this.backgroundLayers = null;
+        repaint();
+    }
+
+    public void setLayeredBackground(LayeredBackground layers) {
+        checkCancelled();
+        if (isSkipping())
+            return; // Maintain snapshot background
+        for (LayeredBackground.Layer layer : layers.getLayers()) {
+            used("background", layer.image);
+        }
+        this.currentBackground = null;
+        this.backgroundLayers = layers;
+        this.backgroundLayersStart = clock.nanoTime();
+        repaint();
+    }
+
+    // --- Camera ---
+
+    public void setCameraZoom(double zoom, int durationMs, com.vnengine.util.EasingFunction easing) {
+        if (isSkipping()) {
+            camera.zoomTo(zoom, 0, null, clock.nanoTime());
+            return;
+        }
+        // Through the scheduler so animation groups can wait for it
+        animator.add(new AnimationScheduler.Tween(CAMERA_ZOOM, durationMs, null) {
+            @Override
+            protected void begin() {
+                camera.zoomTo(zoom, durationMs, easing, startNanos);
+            }
+
+            @Override
+            protected void update(float progress) {
+                // The camera animates itself
+            }
+
+            @Override
+            protected void finish() {
+                camera.zoomTo(zoom, 0, null, startNanos); // Snap when completed early
+            }
+        });
+    }
+
+    public void panCamera(int x, int y, int durationMs, com.vnengine.util.EasingFunction easing) {
+        if (isSkipping()) {
+            camera.panTo(x, y, 0, null, clock.nanoTime());
+            return;
+        }
+        animator.add(new AnimationScheduler.Tween(CAMERA_PAN, durationMs, null) {
+            @Override
+            protected void begin() {
+                camera.panTo(x, y, durationMs, easing, startNanos);
+            }
+
+            @Override
+            protected void update(float progress) {
+                // The camera animates itself
+            }
+
+            @Override
+            protected void finish() {
+                camera.panTo(x, y, 0, null, startNanos);
+            }
+        });
+    }
+
+    public void shakeCamera(int intensity, int durationMs) {
+        if (isSkipping())
+            return; // Purely cosmetic
+        animator.add(new AnimationScheduler.Tween(CAMERA_SHAKE, durationMs, null) {
+            @Override
+            protected void begin() {
+                camera.shake(intensity, durationMs, startNanos);
+            }
+
+            @Override
+            protected void update(float progress) {
+                // The camera animates itself
+            }
+
+            @Override
+            protected void finish() {
+                camera.stopShake();
+            }
+        });
+    }
+
+    public void resetCamera() {
+        camera.reset();
+        if (!isSkipping()) {
+            repaint();
+        }
+    }
+
+    public Camera getCamera() {
+        return camera;
+    }
+
+    // --- Idle Animations ---
+
+    private static class IdleState {
+        final long shownAt;
+        String sprite;
+        int frame = -1;
+        double breath = 1.0;
+
+        IdleState(long shownAt, String sprite) {
+            this.shownAt = shownAt;
+            this.sprite = sprite;
+        }
+    }
+
+    /**
+     * Attach an idle animation set to a sprite. Every character showing that
+     * sprite plays it. Applied during replay too, since it is configuration.
+     */
+    public void setIdleAnimation(String sprite, IdleAnimation idle) {
+        if (idle == null || idle.isStatic()) {
+            idleAnimations.remove(sprite);
+        } else {
+            idleAnimations.put(sprite, idle);
+        }
+    }
+
+    public IdleAnimation getIdleAnimation(String sprite) {
+        return idleAnimations.get(sprite);
+    }
+
+    /**
+     * @return the blink strip frame the character shows, or -1 for the base sprite
+     */
+    public int getIdleFrame(String name) {
+        IdleState state = idleStates.get(name);
+        return state != null ? state.frame : -1;
+    }
+
+    public double getIdleBreath(String name) {
+        IdleState state = idleStates.get(name);
+        return state != null ? state.breath : 1.0;
+    }
+
+    // --- Sprite-Sheet Animations ---
+
+    /**
+     * Play a sprite sheet on a character or effect. If nothing called
+     * {@code name} is on screen, it is shown like a character using the sheet.
+     */
+    public void playAnimation(String name, String sheet, int columns, int rows, double fps, boolean loop) {
+        if (isSkipping())
+            return; // Maintain snapshot animations
+        used("animation", sheet);
+
+        updateScene(s -> s.contains(name) ? s : s.with(new SceneNode(name, sheet)));
+        animations.put(name, new SpriteAnimation(sheet, columns, rows, fps, loop, clock.nanoTime()));
+        repaint();
+    }
+
+    public void stopAnimation(String name) {
+        if (isSkipping())
+            return;
+        if (animations.remove(name) != null) {
+            repaint();
+        }
+    }
+
+    public SpriteAnimation getAnimation(String name) {
+        return animations.get(name);
+    }
+
+    /**
+     * @return the sheet frame last advanced to by {@link #tick}
+     */
+    public int getAnimationFrame(String name) {
+        Integer frame = animationFrames.get(name);
+        return frame != null ? frame : 0;
+    }
+
+    /**
+     * Advance every time-driven visual by one frame. Called from the window's
+     * animation timer on the EDT, before painting.
+     */
+    public void tick(long now) {
+        shownLine = lineSeq; // What the player sees from this frame on
+        if (isFastForwarding()) {
+            animator.completeAll(now); // Nothing gets to play out while skipping
+        }
+        showSkippedLine();
+        animator.tick(now);
+        camera.update(now);
+
+        // Apply this frame's window moves in one setBounds each
+        windowBounds.applyTo(window);
+        for (Map.Entry<String, PendingBounds> entry : subWindowBounds.entrySet()) {
+            SubWindow sw = subWindows.get(entry.getKey());
+            if (sw != null) {
+                entry.getValue().applyTo(sw);
+            }
+        }
+
+        // Sprite-sheet frames come from the clock; repaint only on frame change
+        animationFrames.keySet().retainAll(animations.keySet());
+        for (Map.Entry<String, SpriteAnimation> entry : animations.entrySet()) {
+            String name = entry.getKey();
+            SpriteAnimation animation = entry.getValue();
+            int count = window.getFrameCount(animation.sheet, animation.columns, animation.rows);
+            int frame = animation.frameAt(now, count);
+            Integer last = animationFrames.put(name, frame);
+            if (last == null || last != frame) {
+                window.repaintCharacter(name);
+            }
+        }
+
+        // Advance all idle animations in one pass; only characters whose frame
+        // actually changed get a (partial) repaint.
+        SceneGraph current = scene;
+        idleStates.keySet().removeIf(name -> !current.contains(name));
+        for (SceneNode node : current.getNodes()) {
+            String name = node.name;
+            String sprite = node.sprite;
+            IdleAnimation idle = idleAnimations.get(sprite);
+            IdleState state = idleStates.get(name);
+            if (idle == null) {
+                if (state != null) {
+                    idleStates.remove(name);
+                    window.repaintCharacter(name);
+                }
+                continue;
+            }
+            if (state == null) {
+                state = new IdleState(now, sprite);
+                idleStates.put(name, state);
+            }
+            state.sprite = sprite;
+
+            long elapsedMs = (now - state.shownAt) / 1_000_000L;
+            int seed = name.hashCode();
+            int frame = idle.frameAt(elapsedMs, seed);
+            double breath = Math.round(idle.breathAt(elapsedMs, seed) * 2000) / 2000.0;
+            if (frame != state.frame || breath != state.breath) {
+                state.frame = frame;
+                state.breath = breath;
+                window.repaintCharacter(name);
+            }
+        }
     }
 
     public void showCharacter(String name, String imagePath) {
@@ -114,26 +455,77 @@ public class GameEngine {
     public void showCharacter(String name, String imagePath, int x, int y, double scale) {
         if (isSkipping())
             return; // Maintain snapshot characters
+        used("character", imagePath);
 
-        visibleCharacters.put(name, imagePath);
-        if (x != -1 && y != -1) {
-            characterPositions.put(name, new Point(x, y));
-        }
-        characterScales.put(name, scale);
-        window.repaint();
+        updateScene(s -> {
+            SceneNode existing = s.get(name);
+            SceneNode node = existing != null ? existing.withSprite(imagePath).withAlpha(1f)
+                    : new SceneNode(name, imagePath);
+            node = node.withScale(scale);
+            if (x != -1 && y != -1) {
+                node = node.withPosition(x, y);
+            }
+            return s.with(node);
+        });
+        repaint();
     }
 
     public void setCharacterScale(String name, double scale) {
         if (isSkipping())
             return;
 
-        if (visibleCharacters.containsKey(name)) {
-            characterScales.put(name, scale);
-            window.repaint();
+        if (updateNode(name, n -> n.withScale(scale))) {
+            repaint();
+        }
+    }
+
+    public void setCharacterZ(String name, int z) {
+        if (isSkipping())
+            return;
+
+        if (updateNode(name, n -> n.withZ(z))) {
+            repaint();
+        }
+    }
+
+    public void setCharacterAlpha(String name, float alpha) {
+        if (isSkipping())
+            return;
+
+        if (updateNode(name, n -> n.withAlpha(alpha))) {
+            repaint();
+        }
+    }
+
+    /**
+     * @return the current stage snapshot; never changes after it is returned
+     */
+    public SceneGraph getScene() {
+        return scene;
+    }
+
+    private void updateScene(java.util.function.UnaryOperator<SceneGraph> change) {
+        checkCancelled();
+        synchronized (sceneLock) {
+            scene = change.apply(scene);
+        }
+    }
+
+    // @return false if no such character is on stage
+    private boolean updateNode(String name, java.util.function.UnaryOperator<SceneNode> change) {
+        checkCancelled();
+        synchronized (sceneLock) {
+            SceneNode node = scene.get(name);
+            if (node == null)
+                return false;
+            scene = scene.with(change.apply(node));
+            return true;
         }
     }
 
     public void start() {
+        if (window == null)
+            return;
         SwingUtilities.invokeLater(() -> {
             window.setVisible(true);
         });
@@ -143,9 +535,8 @@ public class GameEngine {
         if (isSkipping())
             return;
 
-        if (visibleCharacters.containsKey(name)) {
-            characterPositions.put(name, new Point(x, y));
-            window.repaint();
+        if (updateNode(name, n -> n.withPosition(x, y))) {
+            repaint();
         }
     }
 
@@ -153,24 +544,26 @@ public class GameEngine {
         if (isSkipping())
             return;
 
-        visibleCharacters.remove(name);
-        characterPositions.remove(name);
-        characterScales.remove(name);
-        window.repaint();
+        animator.cancel(characterKey(name) + CHARACTER_POSITION);
+        animator.cancel(characterKey(name) + CHARACTER_SCALE);
+        animator.cancel(characterKey(name) + CHARACTER_ALPHA);
+        updateScene(s -> s.without(name));
+        animations.remove(name);
+        repaint();
     }
 
     public void setDialogPosition(int x, int y) {
         if (isSkipping())
             return;
         this.customDialogPosition = new Point(x, y);
-        window.repaint();
+        repaint();
     }
 
     public void resetDialogPosition() {
         if (isSkipping())
             return;
         this.customDialogPosition = null;
-        window.repaint();
+        repaint();
     }
 
     // --- Audio Wrappers ---
@@ -184,20 +577,26 @@ public class GameEngine {
     public void playMusic(String name, boolean loop) {
         this.intendedMusic = name;
         if (!isSkipping()) {
-            audioManager.playMusic(name, loop);
+            used("music", name);
+            if (audioManager != null) {
+                audioManager.playMusic(name, loop);
+            }
         }
     }
 
     public void stopMusic() {
         this.intendedMusic = null;
-        if (!isSkipping()) {
+        if (!isSkipping() && audioManager != null) {
             audioManager.stopMusic();
         }
     }
 
     public void playSound(String name) {
         if (!isSkipping()) {
-            audioManager.playSound(name);
+            used("sound", name);
+            if (audioManager != null) {
+                audioManager.playSound(name);
+            }
         }
     }
 
@@ -205,11 +604,13 @@ public class GameEngine {
 
     // Updated Getters
     public Point getCharacterPosition(String name) {
-        return characterPositions.get(name);
+        SceneNode node = scene.get(name);
+        return node != null ? node.getPosition() : null;
     }
 
     public double getCharacterScale(String name) {
-        return characterScales.getOrDefault(name, 1.0);
+        SceneNode node = scene.get(name);
+        return node != null ? node.scale : 1.0;
     }
 
     public Point getCustomDialogPosition() {
@@ -221,8 +622,20 @@ public class GameEngine {
         return currentBackground;
     }
 
+    public LayeredBackground getBackgroundLayers() {
+        return backgroundLayers;
+    }
+
+    public long getBackgroundLayersStart() {
+        return backgroundLayersStart;
+    }
+
     public Map<String, String> getVisibleCharacters() {
-        return visibleCharacters;
+        Map<String, String> characters = new java.util.LinkedHashMap<>();
+        for (SceneNode node : scene.getNodes()) {
+            characters.put(node.name, node.sprite);
+        }
+        return characters;
     }
 
     public String getCurrentSpeaker() {
@@ -256,7 +669,7 @@ public class GameEngine {
     private javax.swing.JDialog currentErrorDialog = null;
 
     public void showFakeError(String title, String message, int x, int y) {
-        if (isSkipping())
+        if (isSkipping() || window == null)
             return;
 
         SwingUtilities.invokeLater(() -> {
@@ -307,7 +720,177 @@ public class GameEngine {
     private int currentStep = 0;
     private int targetStep = -1;
     private Runnable currentScript;
-    private Thread scriptThread;
+    private volatile ScriptScope scriptScope; // The running story and its tracks
+    private final Map<String, Runnable> deferredTracks = new java.util.LinkedHashMap<>(); // Started during replay
+
+    // --- Variables & Checkpoints ---
+    private volatile VariableStore variables = new VariableStore();
+    private volatile Checkpoint lastCheckpoint;
+    private Checkpoint resumeFrom; // Set by loadGame for the next executeScript
+    private java.util.List<LogEntry> resumeBacklog;
+    private volatile ChoiceLog choiceLog = new ChoiceLog();
+    private int[] resumeChoices;
+    private VariableStore resumeVariables; // Saved state the replay ends on, whatever it recomputed
+    private Boolean resumeNvlMode;
+
+    // --- Read History ---
+    private volatile ReadTracker readTracker; // Set by the constructor unless headless
+    private volatile boolean currentLineRead = false;
+
+    /**
+     * Use another read history, or null to track nothing (e.g. for tools).
+     */
+    public void setReadTracker(ReadTracker tracker) {
+        this.readTracker = tracker;
+    }
+
+    /**
+     * @return whether the line at {@code step} with {@code text} was shown in
+     *         any earlier playthrough or session
+     */
+    public boolean isLineRead(int step, String text) {
+        ReadTracker tracker = readTracker;
+        return tracker != null && tracker.isRead(lineKey(step, text));
+    }
+
+    /**
+     * @return whether the line on screen had been read before it was shown
+     */
+    public boolean isCurrentLineRead() {
+        return currentLineRead;
+    }
+
+    private long lineKey(int step, String text) {
+        Runnable script = currentScript;
+        return ReadTracker.key(script != null ? script.getClass().getName() : "", step, text);
+    }
+
+    // --- Asset Prefetching ---
+    private volatile boolean lookAhead = true;
+
+    /**
+     * Turn the dry-run look-ahead of Java scripts on or off (see
+     * {@code GameScript.prefetchAhead()}). Scripts with side effects outside
+     * the engine, like writing files, should turn it off.
+     */
+    public void setLookAhead(boolean lookAhead) {
+        this.lookAhead = lookAhead;
+    }
+
+    public boolean isLookAhead() {
+        return lookAhead && window != null;
+    }
+
+    /**
+     * Start decoding an asset the script is about to use, in the background.
+     *
+     * @param kind as reported to {@link ScriptListener#assetUsed}
+     */
+    public void prefetch(String kind, String name) {
+        if (window == null || name == null)
+            return;
+        switch (kind) {
+            case "background":
+                window.prefetchImage(name, true);
+                break;
+            case "character":
+            case "animation":
+                window.prefetchImage(name, false);
+                break;
+            case "music":
+                audioManager.preloadMusic(name);
+                break;
+            case "sound":
+                audioManager.preloadSound(name);
+                break;
+            default:
+                break; // Movies stream their own frames
+        }
+    }
+
+    /**
+     * Start decoding an image, music track or sound called {@code name}.
+     */
+    public void preload(String name) {
+        if (window == null)
+            return;
+        if (!window.prefetchImage(name) && !audioManager.preloadMusic(name)
+                && !audioManager.preloadSound(name)) {
+            System.err.println("Nothing to preload called " + name);
+        }
+    }
+
+    // --- Tool Hooks ---
+    private volatile ScriptListener listener;
+    private volatile ChoiceSource choiceSource;
+
+    public void setScriptListener(ScriptListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Answer menus with {@code source} instead of showing them, or null to
+     * ask the player again.
+     */
+    public void setChoiceSource(ChoiceSource source) {
+        this.choiceSource = source;
+    }
+
+    private void used(String kind, String name) {
+        ScriptListener l = listener;
+        if (l != null && name != null) {
+            l.assetUsed(kind, name);
+        }
+    }
+
+    public int getCurrentStep() {
+        return currentStep;
+    }
+
+    /**
+     * @return the menu answers given so far in this run, oldest first
+     */
+    public int[] getChoiceHistory() {
+        return choiceLog.toArray();
+    }
+
+    public Checkpoint getLastCheckpoint() {
+        return lastCheckpoint;
+    }
+
+    /**
+     * Start the next {@link #runScript} at {@code checkpoint}, as a load of
+     * a save made there would, with {@code choices} as the menu answers
+     * given so far. Scripts that are not {@link Resumable} there start over.
+     */
+    public void resumeAt(Checkpoint checkpoint, int[] choices) {
+        this.resumeFrom = checkpoint;
+        this.resumeBacklog = null;
+        this.resumeChoices = choices;
+    }
+
+    public VariableStore getVariables() {
+        return variables;
+    }
+
+    /**
+     * Remember the script state at this point, so saves made after it can
+     * resume here (see {@link Resumable}).
+     */
+    public void checkpoint(String id) {
+        requireStory("checkpoint");
+        checkCancelled();
+        ScriptListener l = listener;
+        if (l != null && !isSkipping()) {
+            l.checkpointReached(id);
+        }
+        java.util.List<String[]> page;
+        synchronized (nvlLines) {
+            page = new java.util.ArrayList<>(nvlLines);
+        }
+        this.lastCheckpoint = new Checkpoint(id, currentStep, variables.copy(), backlog.size(),
+                choiceLog.position(), nvlMode, page);
+    }
 
     public void saveGame(int slot) {
         String desc = (currentSpeaker != null ? currentSpeaker + ": " : "") +
@@ -319,77 +902,358 @@ public class GameEngine {
 
         // Capture State
         data.currentBackground = this.currentBackground;
-        data.visibleCharacters = new HashMap<>(this.visibleCharacters);
-        data.characterPositions = new HashMap<>(this.characterPositions);
-        data.characterScales = new HashMap<>(this.characterScales);
+        data.backgroundLayers = this.backgroundLayers;
+        data.idleAnimations = new HashMap<>(this.idleAnimations);
+        data.animations = new HashMap<>(this.animations);
+        data.scene = this.scene; // Immutable, so no copy needed
         data.currentMusic = this.intendedMusic; // Use intended music track name
-        data.windowSize = window.getSize();
-        data.windowPosition = window.getLocation(); // Window screen position
+        data.windowSize = getWindowSize();
+        data.windowPosition = getWindowPosition(); // Window screen position
         data.windowTitle = this.currentWindowTitle;
         data.dialogPosition = this.customDialogPosition; // Dialog box position (may be null)
+        data.cameraZoom = camera.getZoom();
+        data.cameraPosition = new java.awt.geom.Point2D.Double(camera.getX(), camera.getY());
+        data.variables = variables.copy();
+        data.nvlMode = nvlMode;
+        data.checkpoint = lastCheckpoint;
+        data.backlog = new java.util.ArrayList<>(backlog);
+        data.choices = choiceLog.toArray();
 
         SaveManager.save(slot, data);
+        if (readTracker != null) {
+            readTracker.flush(); // A good moment to persist what was read
+        }
     }
 
+    // Saves made before the scene graph kept characters in three maps
+    private static SceneGraph sceneFromMaps(SaveData data) {
+        SceneGraph restored = SceneGraph.EMPTY;
+        if (data.visibleCharacters != null) {
+            for (Map.Entry<String, String> entry : data.visibleCharacters.entrySet()) {
+                String name = entry.getKey();
+                Point position = data.characterPositions != null ? data.characterPositions.get(name) : null;
+                Double scale = data.characterScales != null ? data.characterScales.get(name) : null;
+                restored = restored.with(new SceneNode(name, entry.getValue(), position,
+                        scale != null ? scale : 1.0, 1f, 0));
+            }
+        }
+        return restored;
+    }
+
+    // --- Loading ---
+    private volatile LoadTask currentLoad;
+    private final java.util.concurrent.ExecutorService loader = java.util.concurrent.Executors
+            .newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "save-loader");
+                t.setDaemon(true);
+                return t;
+            });
+    private static final long PREFETCH_WAIT_MS = 3000; // Show the scene anyway after this
+
+    /**
+     * Load the save in {@code slot}. Returns at once; the save is read, its
+     * images decoded, the scene restored and the script fast-forwarded on
+     * background threads while the window shows the progress (see
+     * {@link #getLoadProgress()}). A load still in progress is cancelled.
+     * Without a window the load finishes before this returns.
+     */
     public void loadGame(int slot) {
-        SaveData data = SaveManager.load(slot);
-        if (data == null) {
-            System.err.println("No save data in slot " + slot);
+        startLoad(new LoadTask(slot));
+    }
+
+    private void startLoad(LoadTask task) {
+        LoadTask previous = currentLoad;
+        currentLoad = task;
+        if (previous != null) {
+            previous.cancel();
+        }
+        if (window == null) {
+            runLoad(task);
+            return;
+        }
+        loader.execute(() -> runLoad(task));
+        repaint();
+    }
+
+    /**
+     * Stop the load in progress, keeping the current game as it is. Once a
+     * load restored the scene it can no longer be cancelled.
+     *
+     * @return whether a load was cancelled
+     */
+    public boolean cancelLoad() {
+        LoadTask task = currentLoad;
+        if (task == null || !task.cancel())
+            return false;
+        finishLoad(task);
+        return true;
+    }
+
+    /**
+     * @return whether a load is reading, restoring or fast-forwarding
+     */
+    public boolean isLoading() {
+        LoadTask task = currentLoad;
+        return task != null && !task.isCancelled();
+    }
+
+    /**
+     * @return overall progress of the load from 0 to 1, or -1 if none is running
+     */
+    public float getLoadProgress() {
+        LoadTask task = currentLoad;
+        if (task == null || task.isCancelled())
+            return -1f;
+        if (task.getStage() == LoadTask.FAST_FORWARDING) {
+            if (targetStep > 0) {
+                task.setProgress((float) currentStep / targetStep * (task.keyframe != null ? 0.5f : 1f));
+            } else if (rewindLine > 0) {
+                task.setProgress(0.5f + 0.5f * backlog.size() / rewindLine);
+            }
+        }
+        return task.getProgress();
+    }
+
+    /**
+     * @return what the load is doing, e.g. "Loading images", or null
+     */
+    public String getLoadStage() {
+        LoadTask task = currentLoad;
+        return task != null && !task.isCancelled() ? task.getStageName() : null;
+    }
+
+    // --- Jumping Back ---
+    private static final int KEYFRAME_INTERVAL = 8; // Lines between keyframes, until the index fills up
+    private static final int MAX_KEYFRAMES = 64; // Then every other one is dropped and the interval doubles
+    private final KeyframeIndex keyframes = new KeyframeIndex(KEYFRAME_INTERVAL, MAX_KEYFRAMES);
+    private volatile int rewindLine = -1; // History entry a jump back stops at
+    private volatile Keyframe rewindFrom; // Keyframe a jump back restores once the replay reaches it
+
+    /**
+     * Go back to history entry {@code line} (an index into
+     * {@link #getBacklog()}), e.g. when it is clicked on the History screen.
+     * The stage is restored from the nearest keyframe before that line, and
+     * only the lines between the keyframe and {@code line} are passed; the
+     * script resumes from the checkpoint before the keyframe. Runs like
+     * {@link #loadGame}, in the background.
+     *
+     * @return false if there is nothing to go back to, e.g. the line was
+     *         shown before the last load
+     */
+    public boolean jumpBack(int line) {
+        java.util.List<LogEntry> history = backlog;
+        if (window == null || currentScript == null || isMainMenu || line < 0 || line >= history.size() - 1)
+            return false;
+        Keyframe k = keyframes.nearest(line);
+        if (k == null)
+            return false;
+
+        SaveData data = new SaveData(k.step, "");
+        data.currentBackground = k.background;
+        data.backgroundLayers = k.backgroundLayers;
+        data.scene = k.scene;
+        data.animations = k.animations;
+        data.idleAnimations = k.idleAnimations;
+        data.currentMusic = k.music;
+        data.windowSize = getWindowSize();
+        data.windowPosition = getWindowPosition(); // Going back in the story does not move the window
+        data.windowTitle = k.windowTitle;
+        data.dialogPosition = k.dialogPosition;
+        data.cameraZoom = k.cameraZoom;
+        data.cameraPosition = new java.awt.geom.Point2D.Double(k.cameraX, k.cameraY);
+        data.checkpoint = k.checkpoint; // Variables and NVL mode come from the keyframe once the replay reaches it
+        data.backlog = new java.util.ArrayList<>(history);
+        data.choices = choiceLog.toArray(); // Menus up to the line are answered as they were
+        startLoad(new LoadTask(data, k, line));
+        return true;
+    }
+
+    // Every few lines, remember the state just before this one
+    private void recordKeyframe() {
+        java.util.List<LogEntry> history = backlog;
+        if (window == null || !keyframes.wants(history.size()))
+            return;
+        keyframes.add(new Keyframe(currentStep, history.size(), choiceLog.position(), variables.copy(),
+                nvlMode, lastCheckpoint, scene, new HashMap<>(animations), new HashMap<>(idleAnimations),
+                currentBackground, backgroundLayers, intendedMusic, currentWindowTitle, customDialogPosition,
+                camera));
+    }
+
+    private void finishLoad(LoadTask task) {
+        if (currentLoad == task) {
+            currentLoad = null;
+            repaint();
+        }
+    }
+
+    // The stages of a load, on the loader thread (or the caller's, without a window)
+    private void runLoad(LoadTask task) {
+        try {
+            SaveData data = task.data != null ? task.data : SaveManager.load(task.slot);
+            if (data == null) {
+                System.err.println("No save data in slot " + task.slot);
+                finishLoad(task);
+                return;
+            }
+            if (task.isCancelled())
+                return;
+
+            task.setStage(LoadTask.PREFETCHING);
+            prefetchSave(data, task);
+            if (!task.commit())
+                return; // Cancelled; the old run was never touched
+
+            restoreSave(data);
+            task.setStage(LoadTask.FAST_FORWARDING);
+            if (task.keyframe != null) {
+                keyframes.truncate(task.keyframe.backlogSize); // Later ones are of the future left behind
+                this.rewindFrom = task.keyframe;
+                this.rewindLine = task.line;
+            } else {
+                this.rewindFrom = null;
+                this.rewindLine = -1;
+            }
+            restartAfterLoad();
+        } catch (RuntimeException e) {
+            System.err.println("Could not load slot " + task.slot);
+            e.printStackTrace();
+            finishLoad(task);
+        }
+    }
+
+    // Decode every image the restored scene shows, all at once, so it appears complete
+    private void prefetchSave(SaveData data, LoadTask task) {
+        if (window == null)
             return;
+        java.util.List<java.util.concurrent.CompletableFuture<Void>> pending = new java.util.ArrayList<>();
+        java.util.function.BiConsumer<String, Boolean> add = (name, background) -> {
+            java.util.concurrent.CompletableFuture<Void> f = window.whenPrefetched(name, background);
+            if (f != null) {
+                pending.add(f);
+            }
+        };
+        add.accept(data.currentBackground, true);
+        if (data.backgroundLayers != null) {
+            for (LayeredBackground.Layer layer : data.backgroundLayers.getLayers()) {
+                add.accept(layer.image, true);
+            }
+        }
+        SceneGraph saved = data.scene != null ? data.scene : sceneFromMaps(data);
+        for (SceneNode node : saved.getNodes()) {
+            add.accept(node.sprite, false);
+        }
+        if (data.currentMusic != null) {
+            audioManager.preloadMusic(data.currentMusic); // Starts playing once decoded; no need to wait
+        }
+
+        long deadline = System.nanoTime() + PREFETCH_WAIT_MS * 1_000_000L;
+        for (int i = 0; i < pending.size(); i++) {
+            task.setProgress((float) i / pending.size());
+            while (!pending.get(i).isDone()) {
+                if (task.isCancelled() || System.nanoTime() > deadline)
+                    return;
+                try {
+                    pending.get(i).get(50, java.util.concurrent.TimeUnit.MILLISECONDS);
+                } catch (java.util.concurrent.TimeoutException e) {
+                    // Check for cancellation and go on waiting
+                } catch (java.util.concurrent.ExecutionException e) {
+                    break; // Shows up as a missing image, as it would in play
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void restoreSave(SaveData data) {
+        // Stop the old run first; it is not waited for, since a stalled
+        // script must not hold up the load. Its commands throw from here on.
+        ScriptScope old = scriptScope;
+        if (old != null) {
+            old.cancel(); // Stops the old story and every track it started
+            input.offer(new InputQueue.Event(InputQueue.CANCEL, lineSeq, 0));
         }
 
         // 1. Restore Visual State IMMEDIATELY
         this.currentStep = 0;
         this.targetStep = data.stepIndex;
+        this.nvlMode = false; // The replay turns it back on
+        animator.cancelAll(); // Stop tweens from the old run
+        synchronized (nvlLines) {
+            nvlLines.clear();
+        }
 
         this.currentBackground = data.currentBackground;
-        this.visibleCharacters = new HashMap<>(data.visibleCharacters);
-        this.characterPositions = new HashMap<>(data.characterPositions);
-        this.characterScales = new HashMap<>(data.characterScales);
+        this.backgroundLayers = data.backgroundLayers;
+        this.backgroundLayersStart = clock.nanoTime();
+        this.scene = data.scene != null ? data.scene : sceneFromMaps(data);
+        // Sprite-sheet animations restart at the load; the old run's are dropped
+        long restoredAt = clock.nanoTime();
+        animations.clear();
+        if (data.animations != null) {
+            for (Map.Entry<String, SpriteAnimation> entry : data.animations.entrySet()) {
+                animations.put(entry.getKey(), entry.getValue().restartedAt(restoredAt));
+            }
+        }
+        // Idle sets are configuration a checkpoint resume would not set up again
+        idleAnimations.clear();
+        if (data.idleAnimations != null) {
+            idleAnimations.putAll(data.idleAnimations);
+        }
         this.intendedMusic = data.currentMusic;
         this.customDialogPosition = data.dialogPosition; // Restore dialog position
         this.currentWindowTitle = data.windowTitle != null ? data.windowTitle : "Java Visual Novel Engine";
+        camera.reset();
+        if (data.cameraZoom != null) {
+            camera.zoomTo(data.cameraZoom, 0, null, clock.nanoTime());
+        }
+        if (data.cameraPosition != null) {
+            camera.panTo(data.cameraPosition.x, data.cameraPosition.y, 0, null, clock.nanoTime());
+        }
 
-        // Restore Window
-        SwingUtilities.invokeLater(() -> {
-            if (data.windowSize != null) {
-                window.setSize(data.windowSize);
-            }
-            if (data.windowPosition != null) {
-                window.setLocation(data.windowPosition); // Restore exact position
-            } else {
-                window.setLocationRelativeTo(null); // Fallback to center
-            }
-            window.setTitle(currentWindowTitle);
-            window.repaint();
-        });
+        // Restore Window, replacing whatever geometry the old run left pending
+        windowBounds.clear();
+        Dimension restoredSize = data.windowSize != null ? data.windowSize : getWindowSize();
+        if (data.windowPosition != null) {
+            windowBounds.setSize(restoredSize.width, restoredSize.height);
+            windowBounds.setLocation(data.windowPosition.x, data.windowPosition.y); // Restore exact position
+        } else {
+            windowBounds.setSizeCentered(restoredSize.width, restoredSize.height); // Fallback to center
+        }
+        if (window != null) {
+            SwingUtilities.invokeLater(() -> {
+                window.setTitle(currentWindowTitle);
+                animationFrames.clear(); // Frames shown for the old run's animations
+                idleStates.clear();
+                repaint();
+            });
+        }
 
         // Restore Music
-        if (intendedMusic != null) {
-            audioManager.playMusic(intendedMusic, true);
-        } else {
-            audioManager.stopMusic();
+        if (audioManager != null) {
+            if (intendedMusic != null) {
+                audioManager.playMusic(intendedMusic, true);
+            } else {
+                audioManager.stopMusic();
+            }
         }
 
-        this.waitingForClick = false;
         this.isMainMenu = false;
 
         // 2. Restart Script to catch up Logical State (Variables, etc)
         // We run in "Skipping" mode, but because we already restored visuals,
         // the skipping functions should purely be for side-effect-less logic catchup.
+        // With a checkpoint the script resumes there and only replays the steps after it.
+        this.resumeFrom = data.checkpoint;
+        this.resumeBacklog = data.backlog;
+        this.resumeChoices = data.choices;
+        this.resumeVariables = data.variables;
+        this.resumeNvlMode = data.nvlMode;
+    }
+
+    private void restartAfterLoad() {
         if (currentScript != null) {
-            if (scriptThread != null && scriptThread.isAlive()) {
-                scriptCancelled = true; // Signal old script to stop
-                synchronized (this) {
-                    notifyAll(); // Wake up any waiting threads
-                }
-                scriptThread.interrupt();
-                try {
-                    scriptThread.join(500); // Wait for old thread to die
-                } catch (InterruptedException e) {
-                    // Ignore
-                }
-            }
             executeScript(currentScript);
         } else if (startGameCallback != null) {
             // Start the script if loading from Main Menu
@@ -401,9 +1265,63 @@ public class GameEngine {
         return targetStep != -1 && currentStep < targetStep;
     }
 
+    // --- NVL Mode ---
+
+    public void setNvlMode(boolean nvl) {
+        this.nvlMode = nvl;
+        clearNvlPage();
+    }
+
+    public boolean isNvlMode() {
+        return nvlMode;
+    }
+
+    public void clearNvlPage() {
+        synchronized (nvlLines) {
+            nvlLines.clear();
+        }
+        if (!isSkipping() && window != null) {
+            window.clearNvlPage();
+        }
+    }
+
+    // Without a window there is no page to bring back, so nothing is kept
+    private void addNvlLine(String name, String text) {
+        if (nvlMode && window != null) {
+            synchronized (nvlLines) {
+                nvlLines.add(new String[] { name, text });
+                nvlLineCount++;
+            }
+        }
+    }
+
+    // Number of the first line of nvlLines, as the window's page counts them; hold nvlLines
+    private int nvlFirstLine() {
+        return nvlLineCount - nvlLines.size();
+    }
+
+    /**
+     * The window turned the NVL page: lines before {@code firstLine} are off
+     * it, so loads no longer need them. Called on the EDT.
+     */
+    public void nvlPageTurned(int firstLine) {
+        synchronized (nvlLines) {
+            int dropped = Math.min(firstLine - nvlFirstLine(), nvlLines.size());
+            if (dropped > 0) {
+                nvlLines.subList(0, dropped).clear();
+            }
+        }
+    }
+
     public void say(String name, String text) {
+        requireStory("say");
+        checkCancelled();
         if (isSkipping()) {
+            addNvlLine(name, text);
             this.currentStep++;
+            if (currentStep == targetStep) {
+                reachedSave();
+            }
             // STRICTLY LOGIC ONLY. No UI updates.
             // We do NOT add to backlog here if we want to avoid duplicates if we preserved
             // history differently,
@@ -413,58 +1331,267 @@ public class GameEngine {
         }
 
         // We reached the target!
-        if (targetStep != -1 && currentStep == targetStep) {
-            targetStep = -1; // Done skipping
-            // Ensure the UI matches this final 'say' command
-            window.updateDialogue(name, text);
+        boolean caughtUp = targetStep != -1 && currentStep == targetStep;
+        if (caughtUp) {
+            replayCaughtUp();
+        }
+        recordKeyframe();
+
+        // A jump back passes the lines between its keyframe and the one clicked
+        if (rewindLine >= 0) {
+            if (backlog.size() < rewindLine) {
+                passLine(name, text, true);
+                return;
+            }
+            endRewind();
+        }
+
+        if (isFastForwarding() && fastForward(name, text))
+            return;
+
+        if (caughtUp) {
+            if (window == null) {
+                // Nothing to bring up to date
+            } else if (nvlMode) {
+                // Rebuild the page up to this line
+                synchronized (nvlLines) {
+                    window.setNvlPage(nvlLines, nvlFirstLine());
+                }
+            } else {
+                // Ensure the UI matches this final 'say' command
+                window.updateDialogue(name, text);
+            }
+        }
+        synchronized (nvlLines) {
+            // Coming out of skip mode; bring the page up to date before this line is appended
+            if (skippedLinePending) {
+                skippedLinePending = false;
+                if (nvlMode && window != null) {
+                    window.setNvlPage(nvlLines, nvlFirstLine());
+                }
+            }
+            addNvlLine(name, text);
         }
 
+        ReadTracker tracker = readTracker;
+        this.currentLineRead = tracker != null && !tracker.markRead(lineKey(currentStep, text));
         this.currentStep++;
 
         this.currentSpeaker = name;
         this.currentDialogue = text;
         this.backlog.add(new LogEntry(name, text));
-        this.waitingForClick = true;
+        ScriptListener l = listener;
+        if (l != null) {
+            l.lineShown(name, text);
+        }
+        if (window == null) {
+            // Nobody to click: the line is over once its animations are
+            settleAnimations();
+            if (isCancelled()) {
+                throw new RuntimeException("Script cancelled");
+            }
+            return;
+        }
+        int line = ++lineSeq;
 
         window.updateDialogue(name, text);
-        waitForInput();
+        lineShown();
+        waitForClick(line);
     }
 
-    // ... waitForInput, onUserClick ...
+    // --- Skip Mode ---
 
-    private void waitForInput() {
-        synchronized (this) {
-            while (waitingForClick && !scriptCancelled) {
-                try {
-                    wait();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    // If interrupted (e.g. by loadGame), stop waiting
-                    waitingForClick = false;
-                }
+    /**
+     * Turn skip mode on or off. While it is on, lines go by without waiting
+     * (see {@link #isFastForwarding()}).
+     */
+    public void setSkipMode(boolean skip) {
+        this.skipMode = skip;
+        if (skip) {
+            releaseClickWait();
+        }
+    }
+
+    public boolean isSkipMode() {
+        return skipMode;
+    }
+
+    /**
+     * Skip for as long as the skip key is held.
+     */
+    public void setSkipHeld(boolean held) {
+        this.skipHeld = held;
+        if (held) {
+            releaseClickWait();
+        }
+    }
+
+    /**
+     * @return whether lines should go by without waiting: skip mode is on,
+     *         the skip key is held or a jump back is on its way to its line,
+     *         and no menu is open
+     */
+    public boolean isFastForwarding() {
+        return ((skipMode || skipHeld) && !isMainMenu || rewindLine >= 0) && currentOptions == null;
+    }
+
+    // Go past a line without showing it; false if it must be shown (unread, in read-only skip)
+    private boolean fastForward(String name, String text) {
+        ReadTracker tracker = readTracker;
+        long key = lineKey(currentStep, text);
+        boolean read = tracker != null && tracker.isRead(key);
+        if (!read && !SettingsManager.getInstance().isSkipUnread()) {
+            skipMode = false; // Stop at the first new line
+            return false;
+        }
+
+        if (tracker != null) {
+            tracker.markRead(key);
+        }
+        passLine(name, text, read);
+        return true;
+    }
+
+    // Count a line as shown without waiting for it; the window picks up the latest one on its next frame
+    private void passLine(String name, String text, boolean read) {
+        this.advanceClickNanos = 0; // Not a click-to-line hand-off
+        this.currentStep++;
+        this.currentSpeaker = name;
+        this.currentDialogue = text;
+        this.currentLineRead = read;
+        this.backlog.add(new LogEntry(name, text));
+        synchronized (nvlLines) {
+            addNvlLine(name, text);
+            skippedLinePending = true;
+        }
+    }
+
+    // Called each frame on the EDT: show the last line skip mode went past
+    private void showSkippedLine() {
+        synchronized (nvlLines) {
+            if (!skippedLinePending)
+                return;
+            skippedLinePending = false;
+            if (nvlMode) {
+                window.setNvlPage(nvlLines, nvlFirstLine());
             }
-            // If script was cancelled, throw to exit the script completely
-            if (scriptCancelled) {
-                throw new RuntimeException("Script cancelled");
+            window.showLineInstantly(currentDialogue);
+        }
+    }
+
+    // Let the line the script is waiting on (if any) go without a click
+    private void releaseClickWait() {
+        input.offer(new InputQueue.Event(InputQueue.CLICK, lineSeq, 0));
+    }
+
+    // --- Input Hand-off ---
+
+    // Park the script thread until the player clicks on {@code line}
+    private void waitForClick(int line) {
+        while (true) {
+            InputQueue.Event event = nextEvent();
+            if (event.type == InputQueue.CLICK && event.line == line) {
+                advanceClickNanos = event.nanos;
+                return;
             }
+            input.countStale(); // Aimed at an earlier line, or a choice for a closed menu
+        }
+    }
+
+    // The next input event; throws if the script was cancelled (e.g. by loadGame)
+    private InputQueue.Event nextEvent() {
+        if (isCancelled() || Thread.currentThread().isInterrupted())
+            throw new RuntimeException("Script cancelled");
+        InputQueue.Event event;
+        try {
+            event = input.take();
+        } catch (InterruptedException e) {
+            throw new RuntimeException("Script cancelled");
+        }
+        if (event.type == InputQueue.CANCEL || isCancelled())
+            throw new RuntimeException("Script cancelled");
+        return event;
+    }
+
+    // Called once a line or menu is on screen: time since the click that led to it
+    private void lineShown() {
+        if (advanceClickNanos != 0) {
+            input.recordLatency(System.nanoTime() - advanceClickNanos);
+            advanceClickNanos = 0;
         }
     }
 
+    /**
+     * @return click-to-next-line latency and counts of stale and dropped
+     *         clicks; printed at exit when run with {@code -Dvn.debug.input=true}
+     */
+    public String getInputStats() {
+        return input.summary();
+    }
+
     public void onUserClick() {
+        // A click skips the rest of a cutscene
+        if (currentMovie != null) {
+            onMovieFinished();
+            return;
+        }
+
+        // Jump running animations to their end; unlike the text reveal this
+        // does not swallow the click
+        if (animator.completeAll(clock.nanoTime())) {
+            repaint();
+        }
+
         // If window is currently animating text, skip it first
-        if (window.isTextAnimating()) {
+        if (window != null && window.isTextAnimating()) {
             window.skipTextAnimation();
             return;
         }
 
-        synchronized (this) {
-            if (waitingForClick) {
-                waitingForClick = false;
-                notifyAll();
+        input.offer(new InputQueue.Event(InputQueue.CLICK, shownLine, 0));
+    }
+
+    // --- Cutscenes ---
+
+    /**
+     * Play a frame-sequence cutscene and block the script until it ends or
+     * the player clicks. {@code fps <= 0} uses the clip's own rate.
+     */
+    public void playMovie(String name, double fps) {
+        requireStory("playMovie");
+        if (isSkipping() || isFastForwarding())
+            return;
+        used("movie", name);
+        if (window == null)
+            return;
+
+        int line = ++lineSeq;
+        this.currentMovieFps = fps;
+        this.currentMovie = name;
+        repaint();
+        try {
+            waitForClick(line);
+        } finally {
+            if (currentMovie == name) {
+                currentMovie = null;
             }
         }
     }
 
+    public void onMovieFinished() {
+        if (currentMovie != null) {
+            input.offer(new InputQueue.Event(InputQueue.CLICK, lineSeq, 0));
+        }
+    }
+
+    public String getCurrentMovie() {
+        return currentMovie;
+    }
+
+    public double getCurrentMovieFps() {
+        return currentMovieFps;
+    }
+
     public java.util.List<LogEntry> getBacklog() {
         return backlog;
     }
@@ -479,77 +1606,342 @@ public class GameEngine {
 
     // --- Script Execution ---
     public void executeScript(Runnable script) {
-        this.currentScript = script;
-        this.scriptCancelled = false; // Reset cancellation flag for new script
-        this.scriptThread = new Thread(() -> {
+        Runnable entry = prepareScript(script);
+        ScriptScope scope = new ScriptScope("main");
+        this.scriptScope = scope;
+        scope.start(() -> {
             try {
-                script.run();
+                entry.run();
                 // If we finish skipping and reach the end, reset targetStep
-                targetStep = -1;
+                if (!scope.isCancelled()) {
+                    rewindLine = -1; // The story ended before a jump back reached its line
+                    replayCaughtUp();
+                }
             } catch (Exception e) {
                 // Interrupted during load or cancelled
-                if (!(e instanceof RuntimeException && e.getMessage().equals("Script cancelled"))) {
+                if (!isCancelledError(e)) {
                     e.printStackTrace(); // Only print unexpected errors
                 }
+            } finally {
+                if (!scope.isCancelled()) {
+                    // The story failed while a load caught up; give the player the window back
+                    targetStep = -1;
+                    rewindLine = -1;
+                    resumeVariables = null;
+                    resumeNvlMode = null;
+                    loadCaughtUp();
+                }
             }
         });
-        this.scriptThread.start();
     }
 
-    // --- Choice System ---
-    private String[] currentOptions;
-    private int selectedOptionIndex = -1;
+    private static boolean isCancelledError(Exception e) {
+        return e instanceof RuntimeException && "Script cancelled".equals(e.getMessage());
+    }
 
-    public int promptChoice(String[] options) {
-        if (isSkipping()) {
-            targetStep = -1; // Stop skipping
-        }
+    // True when the calling script thread (story or track) was told to stop
+    private boolean isCancelled() {
+        ScriptScope scope = ScriptScope.current();
+        return scope != null && scope.isCancelled();
+    }
 
-        this.currentStep++;
+    private boolean inTrack() {
+        ScriptScope scope = ScriptScope.current();
+        return scope != null && scope.isTrack();
+    }
 
-        synchronized (this) {
-            this.currentOptions = options;
-            this.selectedOptionIndex = -1;
-            this.waitingForClick = false; // Disable normal click handling
-            window.repaint();
+    /**
+     * Throw "Script cancelled" if the calling script thread was cancelled,
+     * e.g. by a load or {@link #stopTrack}: a cancelled run must not touch
+     * the state the new run restored, even if it was stalled and only
+     * notices now. Script commands check this before running.
+     */
+    public void checkCancelled() {
+        if (isCancelled())
+            throw new RuntimeException("Script cancelled");
+    }
+
+    // Lines, menus and movies wait for the player, which only the story may do
+    private void requireStory(String command) {
+        if (inTrack())
+            throw new IllegalStateException(command + "() can only be used by the main script, not by track '"
+                    + ScriptScope.current().getName() + "'");
+    }
+
+    // --- Tracks ---
+
+    /**
+     * Run {@code body} on its own script thread next to the story, e.g. a
+     * sub-window that keeps moving while the main window talks. A running
+     * track with the same name is stopped first. Tracks end when their body
+     * returns, when {@link #stopTrack} is called, or when a save is loaded.
+     *
+     * Tracks can change the stage, sub-windows and sound, animate and
+     * {@link #sleep}, but cannot show lines, menus or movies. Started while a
+     * save is being replayed, a track waits until the replay catches up.
+     * Without a window tracks do not run.
+     */
+    public void startTrack(String name, Runnable body) {
+        if (window == null)
+            return;
+        if (isSkipping()) {
+            synchronized (deferredTracks) {
+                deferredTracks.remove(name);
+                deferredTracks.put(name, body);
+            }
+            return;
+        }
+        ScriptScope current = ScriptScope.current();
+        // Tracks started by tracks belong to the story too, so stopTrack finds them
+        ScriptScope story = current != null ? current.root() : scriptScope;
+        if (story == null || story.isCancelled())
+            return;
+        ScriptScope track = story.fork(name);
+        track.start(() -> {
+            try {
+                body.run();
+            } catch (Exception e) {
+                if (!isCancelledError(e)) {
+                    System.err.println("Track '" + name + "' failed:");
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
 
-            while (selectedOptionIndex == -1 && !scriptCancelled) {
+    /**
+     * Stop the track called {@code name}, if it is running. Called from a
+     * script, waits briefly for the track to end so it cannot touch the
+     * stage after this returns; tracks stop at their next pause or await.
+     */
+    public void stopTrack(String name) {
+        synchronized (deferredTracks) {
+            if (deferredTracks.remove(name) != null)
+                return;
+        }
+        ScriptScope story = scriptScope;
+        ScriptScope track = story != null ? story.getTrack(name) : null;
+        if (track != null) {
+            track.cancel();
+            ScriptScope current = ScriptScope.current();
+            if (current != null && current != track) {
                 try {
-                    wait();
+                    track.join(250);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
-                    if (scriptCancelled) {
-                        throw new RuntimeException("Script cancelled");
-                    }
-                    return 0; // fallback
                 }
             }
-            if (scriptCancelled) {
-                throw new RuntimeException("Script cancelled");
+        }
+    }
+
+    // The replay after a load reached the saved line: hand back to the player
+    private void replayCaughtUp() {
+        targetStep = -1; // Done skipping
+        startDeferredTracks();
+        Keyframe from = rewindFrom;
+        if (from != null) {
+            rewindFrom = null;
+            if (choiceLog.position() != from.choiceCount) {
+                System.err.println("Jump back: the replay answered " + choiceLog.position() + " menus instead of "
+                        + from.choiceCount + "; keep story state in var(...) so replays match");
             }
-            this.currentOptions = null;
-            window.repaint();
-            return selectedOptionIndex;
+            this.variables = from.variables.copy();
+            this.nvlMode = from.nvlMode;
+        }
+        resumeVariables = null; // The replay never got to the saved step
+        resumeNvlMode = null;
+        if (rewindLine < 0) {
+            loadCaughtUp();
         }
     }
 
-    public void onOptionSelected(int index) {
-        synchronized (this) {
-            this.selectedOptionIndex = index;
-            notifyAll();
+    // The replay is back where the save was made: what the save recorded
+    // wins over what the replay recomputed
+    private void reachedSave() {
+        VariableStore saved = resumeVariables;
+        Boolean nvl = resumeNvlMode;
+        resumeVariables = null;
+        resumeNvlMode = null;
+        if (saved != null) {
+            this.variables = saved.copy();
+        }
+        if (nvl != null) {
+            this.nvlMode = nvl;
+        }
+    }
+
+    // The last line a jump back had to pass is behind it
+    private void endRewind() {
+        rewindLine = -1;
+        loadCaughtUp();
+    }
+
+    private void loadCaughtUp() {
+        LoadTask task = currentLoad;
+        if (task != null && task.getStage() == LoadTask.FAST_FORWARDING) {
+            task.setStage(LoadTask.DONE);
+            finishLoad(task);
+        }
+    }
+
+    // Tracks started while a save was replayed, now that it caught up
+    private void startDeferredTracks() {
+        java.util.List<Map.Entry<String, Runnable>> pending;
+        synchronized (deferredTracks) {
+            if (deferredTracks.isEmpty())
+                return;
+            pending = new java.util.ArrayList<>(deferredTracks.entrySet());
+            deferredTracks.clear();
+        }
+        for (Map.Entry<String, Runnable> entry : pending) {
+            startTrack(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Run {@code script} to the end on the calling thread, e.g. on an engine
+     * without a window. Exceptions from the script reach the caller.
+     */
+    public void runScript(Runnable script) {
+        prepareScript(script).run();
+        targetStep = -1;
+    }
+
+    // Reset (or restore, after a load) the story state; returns where to start
+    private Runnable prepareScript(Runnable script) {
+        this.currentScript = script;
+        synchronized (deferredTracks) {
+            deferredTracks.clear(); // Tracks of the old run
+        }
+        if (rewindLine < 0) {
+            rewindFrom = null; // Not a jump back: keyframes of the old run are of no use
+            keyframes.clear();
+        }
+        input.clear(); // Clicks and the cancel meant for the old run
+
+        Checkpoint resume = this.resumeFrom;
+        this.resumeFrom = null;
+        Runnable section = resume != null && script instanceof Resumable
+                ? ((Resumable) script).resumePoint(resume.id)
+                : null;
+        if (section != null) {
+            restoreCheckpoint(resume);
+        } else {
+            this.currentStep = 0;
+            this.variables = new VariableStore();
+            this.backlog = new java.util.ArrayList<>();
+            this.lastCheckpoint = null;
+        }
+        this.resumeBacklog = null;
+        // Menus answered before the save are answered again from the log
+        this.choiceLog = new ChoiceLog(resumeChoices, section != null ? resume.choiceCount : 0);
+        this.resumeChoices = null;
+        if (targetStep != -1 && currentStep >= targetStep) {
+            reachedSave(); // Saved at the very start, or right at the checkpoint
+        }
+        return section != null ? section : script;
+    }
+
+    private void restoreCheckpoint(Checkpoint checkpoint) {
+        this.currentStep = checkpoint.step;
+        this.variables = checkpoint.variables.copy();
+        java.util.List<LogEntry> history = new java.util.ArrayList<>();
+        if (resumeBacklog != null) {
+            history.addAll(resumeBacklog.subList(0, Math.min(checkpoint.backlogSize, resumeBacklog.size())));
+        }
+        this.backlog = history;
+        this.nvlMode = checkpoint.nvlMode;
+        synchronized (nvlLines) {
+            nvlLines.clear();
+            nvlLines.addAll(checkpoint.nvlLines);
+            nvlLineCount += checkpoint.nvlLines.size();
+        }
+        this.lastCheckpoint = checkpoint;
+    }
+
+    // --- Choice System ---
+    private volatile String[] currentOptions;
+
+    public int promptChoice(String[] options) {
+        requireStory("menu");
+        checkCancelled();
+        if (isSkipping() || rewindLine >= 0) {
+            int logged = choiceLog.replay();
+            if (logged >= 0 && logged < options.length) {
+                this.currentStep++;
+                if (currentStep == targetStep) {
+                    reachedSave();
+                }
+                return logged; // Same answer as before the save, without showing the menu
+            }
+            // No recorded answer (older save, or saved at this menu): stop skipping and ask
+            if (isSkipping()) {
+                reachedSave();
+                replayCaughtUp();
+            }
+            if (rewindLine >= 0) {
+                endRewind();
+            }
+        }
+        skipMode = false; // Skipping stops at choices
+
+        ChoiceSource source = choiceSource;
+        if (source == null && window == null)
+            throw new IllegalStateException("A menu needs a ChoiceSource when running without a window");
+        if (source != null) {
+            int choice = Math.max(0, Math.min(source.choose(options), options.length - 1));
+            this.currentStep++;
+            choiceLog.append(choice);
+            return choice;
+        }
+
+        this.currentStep++;
+
+        int menu = ++lineSeq;
+        this.currentOptions = options;
+        repaint();
+        lineShown();
+        try {
+            while (true) {
+                InputQueue.Event event = nextEvent();
+                if (event.type == InputQueue.CHOICE && event.line == menu && event.value >= 0
+                        && event.value < options.length) {
+                    choiceLog.append(event.value);
+                    return event.value;
+                }
+                input.countStale(); // Clicks behind the menu, or a choice for an earlier one
+            }
+        } finally {
+            if (currentOptions == options) {
+                this.currentOptions = null; // Unless a newer run already shows its own menu
+            }
+            repaint();
         }
     }
 
+    public void onOptionSelected(int index) {
+        input.offer(new InputQueue.Event(InputQueue.CHOICE, shownLine, index));
+    }
+
     // --- Window Manipulation (Meta Features) ---
 
     public void setWindowPosition(int x, int y) {
         if (isSkipping())
             return;
-        SwingUtilities.invokeLater(() -> window.setLocation(x, y));
+        windowBounds.setLocation(x, y);
     }
 
     public Point getWindowPosition() {
-        return window.getLocation();
+        return windowBounds.getLocation(window != null ? window.getLocation() : new Point());
+    }
+
+    private Dimension getWindowSize() {
+        return windowBounds.getSize(window != null ? window.getSize() : new Dimension());
+    }
+
+    // There may be no screen at all without a window
+    private Dimension getScreenSize() {
+        return window != null ? java.awt.Toolkit.getDefaultToolkit().getScreenSize() : new Dimension();
     }
 
     public void centerWindow() {
@@ -558,17 +1950,17 @@ public class GameEngine {
         centerWindow(0, null);
     }
 
-    public void centerWindow(int durationMs, com.vnengine.util.Easing easing) {
+    public void centerWindow(int durationMs, com.vnengine.util.EasingFunction easing) {
         if (isSkipping())
             return;
 
-        Dimension screenSize = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
-        Dimension windowSize = window.getSize();
+        Dimension screenSize = getScreenSize();
+        Dimension windowSize = getWindowSize();
         int targetX = (screenSize.width - windowSize.width) / 2;
         int targetY = (screenSize.height - windowSize.height) / 2;
 
         if (durationMs <= 0 || easing == null) {
-            SwingUtilities.invokeLater(() -> window.setLocation(targetX, targetY));
+            windowBounds.setLocation(targetX, targetY);
         } else {
             slideWindow(targetX, targetY, durationMs, easing);
         }
@@ -578,188 +1970,173 @@ public class GameEngine {
         if (isSkipping())
             return; // Don't shake during load
 
-        // Cancel any existing window animation
-        if (windowAnimation != null && windowAnimation.isAlive()) {
-            windowAnimation.interrupt();
-        }
-
-        windowAnimation = new Thread(() -> {
-            Point original = window.getLocation();
-            long endTime = System.currentTimeMillis() + durationMs;
+        // Replaces any running window slide or shake
+        animator.add(new AnimationScheduler.Tween(WINDOW_POSITION, durationMs, null) {
+            Point original;
+            long step = -1;
 
-            while (System.currentTimeMillis() < endTime && !Thread.currentThread().isInterrupted()) {
-                int offsetX = (int) (Math.random() * intensity * 2) - intensity;
-                int offsetY = (int) (Math.random() * intensity * 2) - intensity;
-
-                SwingUtilities.invokeLater(() -> window.setLocation(original.x + offsetX, original.y + offsetY));
+            @Override
+            protected void begin() {
+                original = getWindowPosition();
+            }
 
-                try {
-                    Thread.sleep(30);
-                } catch (InterruptedException e) {
-                    SwingUtilities.invokeLater(() -> window.setLocation(original));
-                    return; // Exit animation if interrupted
+            @Override
+            protected void update(float progress) {
+                // New offset every 30ms of clock time, from the same noise as the camera
+                // shake so replays shake identically
+                long currentStep = (long) (progress * durationMs) / 30;
+                if (currentStep != step) {
+                    step = currentStep;
+                    int offsetX = (int) Math.round(Camera.noise(currentStep * 2) * intensity);
+                    int offsetY = (int) Math.round(Camera.noise(currentStep * 2 + 1) * intensity);
+                    windowBounds.setLocation(original.x + offsetX, original.y + offsetY);
                 }
             }
-            if (!Thread.currentThread().isInterrupted()) {
-                SwingUtilities.invokeLater(() -> window.setLocation(original));
+
+            @Override
+            protected void finish() {
+                windowBounds.setLocation(original.x, original.y);
+            }
+
+            @Override
+            protected void cancelled() {
+                windowBounds.setLocation(original.x, original.y);
             }
         });
-        windowAnimation.start();
     }
 
     public void slideWindow(int targetX, int targetY, int durationMs) {
         slideWindow(targetX, targetY, durationMs, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
     }
 
-    public void slideWindow(int targetX, int targetY, int durationMs, com.vnengine.util.Easing easing) {
+    public void slideWindow(int targetX, int targetY, int durationMs, com.vnengine.util.EasingFunction easing) {
         if (isSkipping()) {
             setWindowPosition(targetX, targetY);
             return;
         }
 
-        // Cancel any existing window animation
-        if (windowAnimation != null && windowAnimation.isAlive()) {
-            windowAnimation.interrupt();
-        }
+        animator.add(new AnimationScheduler.Tween(WINDOW_POSITION, durationMs, easing) {
+            Point start;
+
+            @Override
+            protected void begin() {
+                start = getWindowPosition();
+            }
+
+            @Override
+            protected void update(float progress) {
+                int currentX = (int) (start.x + (targetX - start.x) * progress);
+                int currentY = (int) (start.y + (targetY - start.y) * progress);
+                windowBounds.setLocation(currentX, currentY);
+            }
+        });
+    }
 
-        windowAnimation = new Thread(() -> {
-            Point start = window.getLocation();
-            long startTime = System.currentTimeMillis();
+    // --- Animation Groups ---
 
-            while (!Thread.currentThread().isInterrupted()) {
-                long now = System.currentTimeMillis();
-                float progress = (float) (now - startTime) / durationMs;
-                if (progress >= 1f)
-                    break;
+    /**
+     * Run {@code block} and start every animation it begins at the same time.
+     * While skipping, animations jump to their end state, so the group is
+     * already done when this returns.
+     */
+    public AnimationGroup parallel(Runnable block) {
+        return track(animator.group(false, block));
+    }
 
-                float easedProgress = easing.apply(progress);
+    /**
+     * Like {@link #parallel}, but each step's animations start once the
+     * previous step's have all finished.
+     */
+    public AnimationGroup sequence(Runnable... steps) {
+        return track(animator.group(true, steps));
+    }
 
-                int currentX = (int) (start.x + (targetX - start.x) * easedProgress);
-                int currentY = (int) (start.y + (targetY - start.y) * easedProgress);
+    /**
+     * Run {@code block}; animations it starts are not cut short by clicks.
+     */
+    public void uninterruptible(Runnable block) {
+        animator.uninterruptible(block);
+    }
 
-                SwingUtilities.invokeLater(() -> window.setLocation(currentX, currentY));
+    private AnimationGroup track(AnimationGroup group) {
+        group.setCancelCheck(this::isCancelled);
+        if (window == null) {
+            settleAnimations(); // No frames will run it; await() returns at once
+        }
+        return group;
+    }
 
-                try {
-                    Thread.sleep(16);
-                } catch (InterruptedException e) {
-                    return; // Exit animation if interrupted
-                }
-            }
-            if (!Thread.currentThread().isInterrupted()) {
-                SwingUtilities.invokeLater(() -> window.setLocation(targetX, targetY));
-            }
-        });
-        windowAnimation.start();
+    // Without a window no frame ever ticks, so finish every tween now
+    private void settleAnimations() {
+        animator.completeAll(clock.nanoTime(), true);
     }
 
     // --- Entity Animation ---
 
-    public void slideCharacter(String name, int targetX, int targetY, int durationMs, com.vnengine.util.Easing easing) {
-        if (!visibleCharacters.containsKey(name))
+    public void slideCharacter(String name, int targetX, int targetY, int durationMs, com.vnengine.util.EasingFunction easing) {
+        if (!scene.contains(name))
             return;
 
         if (isSkipping()) {
-            characterPositions.put(name, new Point(targetX, targetY));
+            updateNode(name, n -> n.withPosition(targetX, targetY));
             // No repaint needed here strictly as load loop is fast, but harmless
             return;
         }
 
-        // Cancel any existing animation for this character
-        Thread existingAnim = characterAnimations.get(name);
-        if (existingAnim != null && existingAnim.isAlive()) {
-            existingAnim.interrupt();
-        }
+        // Replaces any running slide of this character
+        animator.add(new AnimationScheduler.Tween(characterKey(name) + CHARACTER_POSITION, durationMs, easing) {
+            Point start;
 
-        Thread animThread = new Thread(() -> {
-            Point start = characterPositions.getOrDefault(name, new Point(0, 0));
-            if (!characterPositions.containsKey(name)) {
-                characterPositions.put(name, new Point(targetX, targetY)); // Snap if unknown
-                window.repaint();
-                return;
+            @Override
+            protected void begin() {
+                // Snap if the character has no explicit position yet
+                Point position = getCharacterPosition(name);
+                start = position != null ? position : new Point(targetX, targetY);
             }
 
-            long startTime = System.currentTimeMillis();
-
-            while (!Thread.currentThread().isInterrupted()) {
-                long now = System.currentTimeMillis();
-                float progress = (float) (now - startTime) / durationMs;
-                if (progress >= 1f)
-                    break;
-
-                float easedProgress = easing.apply(progress);
-
-                int currentX = (int) (start.x + (targetX - start.x) * easedProgress);
-                int currentY = (int) (start.y + (targetY - start.y) * easedProgress);
-
-                characterPositions.put(name, new Point(currentX, currentY));
-                SwingUtilities.invokeLater(() -> window.repaint());
-
-                try {
-                    Thread.sleep(16);
-                } catch (InterruptedException e) {
-                    return; // Exit animation if interrupted
-                }
-            }
-            if (!Thread.currentThread().isInterrupted()) {
-                characterPositions.put(name, new Point(targetX, targetY));
-                SwingUtilities.invokeLater(() -> window.repaint());
+            @Override
+            protected void update(float progress) {
+                int currentX = (int) (start.x + (targetX - start.x) * progress);
+                int currentY = (int) (start.y + (targetY - start.y) * progress);
+                updateNode(name, n -> n.withPosition(currentX, currentY));
+                repaint();
             }
         });
-        characterAnimations.put(name, animThread);
-        animThread.start();
     }
 
-    public void slideDialog(int targetX, int targetY, int durationMs, com.vnengine.util.Easing easing) {
+    public void slideDialog(int targetX, int targetY, int durationMs, com.vnengine.util.EasingFunction easing) {
         if (isSkipping()) {
             setDialogPosition(targetX, targetY);
             return;
         }
 
-        // Cancel any existing dialog animation
-        if (dialogAnimation != null && dialogAnimation.isAlive()) {
-            dialogAnimation.interrupt();
-        }
-
-        dialogAnimation = new Thread(() -> {
-            Point start = customDialogPosition != null ? customDialogPosition : new Point(20, 500); // Default guess for
-                                                                                                    // now
-            long startTime = System.currentTimeMillis();
+        animator.add(new AnimationScheduler.Tween(DIALOG_POSITION, durationMs, easing) {
+            Point start;
 
-            while (!Thread.currentThread().isInterrupted()) {
-                long now = System.currentTimeMillis();
-                float progress = (float) (now - startTime) / durationMs;
-                if (progress >= 1f)
-                    break;
-
-                float easedProgress = easing.apply(progress);
-
-                int currentX = (int) (start.x + (targetX - start.x) * easedProgress);
-                int currentY = (int) (start.y + (targetY - start.y) * easedProgress);
+            @Override
+            protected void begin() {
+                start = customDialogPosition != null ? customDialogPosition : new Point(20, 500); // Default guess for
+                                                                                                  // now
+            }
 
+            @Override
+            protected void update(float progress) {
+                int currentX = (int) (start.x + (targetX - start.x) * progress);
+                int currentY = (int) (start.y + (targetY - start.y) * progress);
                 setDialogPosition(currentX, currentY);
-
-                try {
-                    Thread.sleep(16);
-                } catch (InterruptedException e) {
-                    return; // Exit animation if interrupted
-                }
-            }
-            if (!Thread.currentThread().isInterrupted()) {
-                setDialogPosition(targetX, targetY);
             }
         });
-        dialogAnimation.start();
     }
 
     public void resizeWindow(int targetW, int targetH, int durationMs) {
         resizeWindow(targetW, targetH, durationMs, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC, false);
     }
 
-    public void resizeWindow(int targetW, int targetH, int durationMs, com.vnengine.util.Easing easing) {
+    public void resizeWindow(int targetW, int targetH, int durationMs, com.vnengine.util.EasingFunction easing) {
         resizeWindow(targetW, targetH, durationMs, easing, false);
     }
 
-    public void resizeWindow(int targetW, int targetH, int durationMs, com.vnengine.util.Easing easing,
+    public void resizeWindow(int targetW, int targetH, int durationMs, com.vnengine.util.EasingFunction easing,
             boolean keepCentered) {
         if (isSkipping()) {
             setWindowSize(targetW, targetH);
@@ -768,58 +2145,43 @@ public class GameEngine {
             return;
         }
 
-        if (windowResizeAnimation != null && windowResizeAnimation.isAlive()) {
-            windowResizeAnimation.interrupt();
-        }
-
-        windowResizeAnimation = new Thread(() -> {
-            Dimension startSize = window.getSize();
-            long startTime = System.currentTimeMillis();
-
-            Dimension screenSize = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
-
-            while (!Thread.currentThread().isInterrupted()) {
-                long now = System.currentTimeMillis();
-                float progress = (float) (now - startTime) / durationMs;
-                if (progress >= 1f)
-                    break;
+        animator.add(new AnimationScheduler.Tween(WINDOW_SIZE, durationMs, easing) {
+            Dimension startSize;
+            Dimension screenSize;
 
-                float easedProgress = easing.apply(progress);
-
-                int currentW = (int) (startSize.width + (targetW - startSize.width) * easedProgress);
-                int currentH = (int) (startSize.height + (targetH - startSize.height) * easedProgress);
+            @Override
+            protected void begin() {
+                startSize = getWindowSize();
+                screenSize = getScreenSize();
+            }
 
-                SwingUtilities.invokeLater(() -> {
-                    window.setSize(currentW, currentH);
-                    if (keepCentered) {
-                        int x = (screenSize.width - currentW) / 2;
-                        int y = (screenSize.height - currentH) / 2;
-                        window.setLocation(x, y);
-                    }
-                    window.revalidate();
-                });
+            @Override
+            protected void update(float progress) {
+                int currentW = (int) (startSize.width + (targetW - startSize.width) * progress);
+                int currentH = (int) (startSize.height + (targetH - startSize.height) * progress);
 
-                try {
-                    Thread.sleep(16);
-                } catch (InterruptedException e) {
-                    return;
+                windowBounds.setSize(currentW, currentH);
+                if (keepCentered) {
+                    int x = (screenSize.width - currentW) / 2;
+                    int y = (screenSize.height - currentH) / 2;
+                    windowBounds.setLocation(x, y);
                 }
             }
-            if (!Thread.currentThread().isInterrupted()) {
-                SwingUtilities.invokeLater(() -> {
-                    window.setSize(targetW, targetH);
-                    if (keepCentered) {
-                        window.setLocationRelativeTo(null);
-                    }
-                });
+
+            @Override
+            protected void finish() {
+                if (keepCentered) {
+                    windowBounds.setSizeCentered(targetW, targetH);
+                } else {
+                    windowBounds.setSize(targetW, targetH);
+                }
             }
         });
-        windowResizeAnimation.start();
     }
 
     // --- Website Opener ---
     public void openWebsite(String urlString) {
-        if (isSkipping())
+        if (isSkipping() || window == null)
             return;
 
         try {
@@ -836,50 +2198,57 @@ public class GameEngine {
         }
     }
 
-    public void scaleCharacter(String name, double targetScale, int durationMs, com.vnengine.util.Easing easing) {
-        if (!visibleCharacters.containsKey(name))
+    public void fadeCharacter(String name, float targetAlpha, int durationMs, com.vnengine.util.EasingFunction easing) {
+        if (!scene.contains(name))
             return;
 
         if (isSkipping()) {
-            characterScales.put(name, targetScale);
+            updateNode(name, n -> n.withAlpha(targetAlpha));
             return;
         }
 
-        Thread existingAnim = characterScaleAnimations.get(name);
-        if (existingAnim != null && existingAnim.isAlive()) {
-            existingAnim.interrupt();
-        }
+        animator.add(new AnimationScheduler.Tween(characterKey(name) + CHARACTER_ALPHA, durationMs, easing) {
+            float startAlpha;
 
-        Thread animThread = new Thread(() -> {
-            double startScale = characterScales.getOrDefault(name, 1.0);
-            long startTime = System.currentTimeMillis();
+            @Override
+            protected void begin() {
+                SceneNode node = scene.get(name);
+                startAlpha = node != null ? node.alpha : 1f;
+            }
 
-            while (!Thread.currentThread().isInterrupted()) {
-                long now = System.currentTimeMillis();
-                float progress = (float) (now - startTime) / durationMs;
-                if (progress >= 1f)
-                    break;
+            @Override
+            protected void update(float progress) {
+                float currentAlpha = startAlpha + (targetAlpha - startAlpha) * progress;
+                updateNode(name, n -> n.withAlpha(currentAlpha));
+                repaint();
+            }
+        });
+    }
 
-                float easedProgress = easing.apply(progress);
+    public void scaleCharacter(String name, double targetScale, int durationMs, com.vnengine.util.EasingFunction easing) {
+        if (!scene.contains(name))
+            return;
 
-                double currentScale = startScale + (targetScale - startScale) * easedProgress;
+        if (isSkipping()) {
+            updateNode(name, n -> n.withScale(targetScale));
+            return;
+        }
 
-                characterScales.put(name, currentScale);
-                SwingUtilities.invokeLater(() -> window.repaint());
+        animator.add(new AnimationScheduler.Tween(characterKey(name) + CHARACTER_SCALE, durationMs, easing) {
+            double startScale;
 
-                try {
-                    Thread.sleep(16);
-                } catch (InterruptedException e) {
-                    return;
-                }
+            @Override
+            protected void begin() {
+                startScale = getCharacterScale(name);
             }
-            if (!Thread.currentThread().isInterrupted()) {
-                characterScales.put(name, targetScale);
-                SwingUtilities.invokeLater(() -> window.repaint());
+
+            @Override
+            protected void update(float progress) {
+                double currentScale = startScale + (targetScale - startScale) * progress;
+                updateNode(name, n -> n.withScale(currentScale));
+                repaint();
             }
         });
-        characterScaleAnimations.put(name, animThread);
-        animThread.start();
     }
 
     // --- Main Menu System ---
@@ -892,9 +2261,12 @@ public class GameEngine {
 
         // Reset state for main menu
         this.currentBackground = null;
-        this.visibleCharacters.clear();
-        this.characterPositions.clear();
-        this.characterScales.clear();
+        this.backgroundLayers = null;
+        this.scene = SceneGraph.EMPTY;
+        this.animations.clear();
+        this.animator.cancelAll();
+        this.camera.reset();
+        this.nvlMode = false;
         this.currentDialogue = null;
         this.currentSpeaker = null;
 
@@ -904,7 +2276,7 @@ public class GameEngine {
         // Start main menu music
         playMusic("Enjoy", true);
 
-        window.repaint();
+        repaint();
     }
 
     public boolean isMainMenu() {
@@ -922,7 +2294,7 @@ public class GameEngine {
     // --- Sub-Window System (Meta Features) ---
 
     public void createSubWindow(String id, String title, int width, int height) {
-        if (isSkipping())
+        if (isSkipping() || window == null)
             return;
         SwingUtilities.invokeLater(() -> {
             if (subWindows.containsKey(id)) {
@@ -938,6 +2310,7 @@ public class GameEngine {
             return;
         SwingUtilities.invokeLater(() -> {
             SubWindow sw = subWindows.remove(id);
+            subWindowBounds.remove(id);
             if (sw != null) {
                 sw.dispose();
             }
@@ -947,12 +2320,7 @@ public class GameEngine {
     public void setSubWindowPosition(String id, int x, int y) {
         if (isSkipping())
             return;
-        SwingUtilities.invokeLater(() -> {
-            SubWindow sw = subWindows.get(id);
-            if (sw != null) {
-                sw.setLocation(x, y);
-            }
-        });
+        subWindowBounds.computeIfAbsent(id, k -> new PendingBounds()).setLocation(x, y);
     }
 
     public void setSubWindowBackground(String id, String imagePath) {
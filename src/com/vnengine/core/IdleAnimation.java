@@ -0,0 +1,91 @@
+package com.vnengine.core;
+
+import java.io.Serializable;
+
+/**
+ * Idle animation set for a character sprite: periodic blinks played from a
+ * horizontal sprite strip and a subtle breathing scale.
+ * The strip holds the blink frames from half-open to closed, each the same
+ * size as the base sprite; a blink plays them forward and back.
+ *
+ * Both effects are pure functions of the time since the character appeared,
+ * so a single engine tick can advance every character on screen. Instances
+ * are immutable.
+ */
+public class IdleAnimation implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final String blinkStrip; // Null for no blinking
+    public final int blinkFrames;
+    public final int blinkIntervalMs; // Average time between blinks
+    public final int blinkFrameMs;
+    public final double breathAmplitude; // 0.01 = 1% taller at the peak
+    public final int breathPeriodMs;
+
+    public IdleAnimation() {
+        this(null, 0, 4000, 50, 0, 0);
+    }
+
+    private IdleAnimation(String blinkStrip, int blinkFrames, int blinkIntervalMs, int blinkFrameMs,
+            double breathAmplitude, int breathPeriodMs) {
+        this.blinkStrip = blinkStrip;
+        this.blinkFrames = blinkFrames;
+        this.blinkIntervalMs = blinkIntervalMs;
+        this.blinkFrameMs = blinkFrameMs;
+        this.breathAmplitude = breathAmplitude;
+        this.breathPeriodMs = breathPeriodMs;
+    }
+
+    public IdleAnimation blink(String strip, int frames) {
+        return blink(strip, frames, blinkIntervalMs);
+    }
+
+    public IdleAnimation blink(String strip, int frames, int intervalMs) {
+        return new IdleAnimation(strip, frames, Math.max(200, intervalMs), blinkFrameMs, breathAmplitude,
+                breathPeriodMs);
+    }
+
+    public IdleAnimation breathing(double amplitude, int periodMs) {
+        return new IdleAnimation(blinkStrip, blinkFrames, blinkIntervalMs, blinkFrameMs, amplitude,
+                Math.max(1, periodMs));
+    }
+
+    /**
+     * @return the strip frame to show, or -1 for the base sprite
+     */
+    public int frameAt(long elapsedMs, int seed) {
+        if (blinkStrip == null || blinkFrames <= 0)
+            return -1;
+
+        long cycle = elapsedMs / blinkIntervalMs;
+        long inCycle = elapsedMs % blinkIntervalMs;
+        // Jitter the blink inside the first half of each interval
+        long jitter = (hash(seed, cycle) & 0x7fffffffL) % (blinkIntervalMs / 2);
+        long pos = (inCycle - jitter) / blinkFrameMs;
+        if (inCycle < jitter || pos >= blinkFrames * 2 - 1)
+            return -1;
+        return (int) (pos < blinkFrames ? pos : blinkFrames * 2 - 2 - pos);
+    }
+
+    /**
+     * @return vertical scale factor for the breathing effect
+     */
+    public double breathAt(long elapsedMs, int seed) {
+        if (breathAmplitude == 0 || breathPeriodMs <= 0)
+            return 1.0;
+        double phase = (seed & 0xff) / 256.0;
+        return 1.0 + breathAmplitude * Math.sin(2 * Math.PI * ((double) elapsedMs / breathPeriodMs + phase));
+    }
+
+    public boolean isStatic() {
+        return blinkStrip == null && breathAmplitude == 0;
+    }
+
+    private static long hash(int seed, long n) {
+        long h = seed * 0x9E3779B97F4A7C15L + n;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,186 @@
+package com.vnengine.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands player input from the EDT to the script thread without a shared
+ * lock: a bounded array queue where producers and the consumer only meet
+ * on per-slot sequence numbers (Vyukov's MPMC scheme). The script thread
+ * parks in {@link #take()} and the producer that fills the queue unparks
+ * it. When the queue is full, new events are dropped and counted.
+ *
+ * Every event carries the line it was aimed at, so a click meant for a
+ * line that already advanced (a double click, or a click racing auto mode)
+ * is recognized as stale instead of skipping the next line.
+ */
+final class InputQueue {
+    static final int CLICK = 0;
+    static final int CHOICE = 1;
+    static final int CANCEL = 2;
+
+    static final class Event {
+        final int type;
+        final int line; // Line (or menu) on screen when the player acted
+        final int value; // Option index for CHOICE
+        final long nanos; // System.nanoTime() when posted
+
+        Event(int type, int line, int value) {
+            this.type = type;
+            this.line = line;
+            this.value = value;
+            this.nanos = System.nanoTime();
+        }
+    }
+
+    private final int mask;
+    private final AtomicReferenceArray<Event> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong(); // Next slot to fill
+    private final AtomicLong head = new AtomicLong(); // Next slot to take
+    private final AtomicReference<Thread> waiter = new AtomicReference<>();
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+
+    // Click-to-next-line latency, in power-of-two microsecond buckets
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(32);
+    private final AtomicLong latencyCount = new AtomicLong();
+    private final AtomicLong latencyTotal = new AtomicLong();
+    private final AtomicLong latencyMax = new AtomicLong();
+
+    InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        slots = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the queue was full and the event was dropped
+     */
+    boolean offer(Event event) {
+        long pos = tail.get();
+        while (true) {
+            int i = (int) pos & mask;
+            long diff = sequences.get(i) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.set(i, event);
+                    sequences.set(i, pos + 1); // Publishes the slot
+                    break;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+        Thread w = waiter.get();
+        if (w != null) {
+            LockSupport.unpark(w);
+        }
+        return true;
+    }
+
+    /**
+     * @return the oldest event, or null if there is none
+     */
+    Event poll() {
+        long pos = head.get();
+        while (true) {
+            int i = (int) pos & mask;
+            long diff = sequences.get(i) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    Event event = slots.get(i);
+                    slots.set(i, null);
+                    sequences.set(i, pos + mask + 1); // Free for the next lap
+                    return event;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    /**
+     * Park until an event arrives. Only one thread may wait at a time. An
+     * interrupted thread (e.g. a story cancelled by a load) throws before
+     * taking anything, so it cannot swallow input meant for the next run.
+     */
+    Event take() throws InterruptedException {
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        Event event = poll();
+        if (event != null)
+            return event;
+        Thread me = Thread.currentThread();
+        waiter.set(me);
+        try {
+            while (true) {
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                if ((event = poll()) != null)
+                    return event;
+                LockSupport.park(this);
+            }
+        } finally {
+            // A cancelled run leaving late must not unregister the run that replaced it
+            waiter.compareAndSet(me, null);
+        }
+    }
+
+    void clear() {
+        while (poll() != null) {
+            // Drain
+        }
+    }
+
+    void countStale() {
+        stale.incrementAndGet();
+    }
+
+    void recordLatency(long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        latencyBuckets.incrementAndGet(Math.min(31, 63 - Long.numberOfLeadingZeros(micros)));
+        latencyCount.incrementAndGet();
+        latencyTotal.addAndGet(micros);
+        latencyMax.accumulateAndGet(micros, Math::max);
+    }
+
+    // Upper bound of the bucket holding the given fraction of samples
+    private long percentile(double fraction) {
+        long count = latencyCount.get();
+        long seen = 0;
+        for (int i = 0; i < 32; i++) {
+            seen += latencyBuckets.get(i);
+            if (seen >= count * fraction)
+                return Math.min(1L << (i + 1), latencyMax.get());
+        }
+        return latencyMax.get();
+    }
+
+    /**
+     * @return click-to-next-line latency and event counts, e.g. for a debug log
+     */
+    String summary() {
+        long count = latencyCount.get();
+        if (count == 0)
+            return "no clicks yet (" + stale.get() + " stale, " + dropped.get() + " dropped)";
+        return count + " clicks: mean " + latencyTotal.get() / count + "us, p50 <= " + percentile(0.5)
+                + "us, p99 <= " + percentile(0.99) + "us, max " + latencyMax.get() + "us ("
+                + stale.get() + " stale, " + dropped.get() + " dropped)";
+    }
+}
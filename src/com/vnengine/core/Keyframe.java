@@ -0,0 +1,58 @@
+package com.vnengine.core;
+
+import java.awt.Point;
+import java.util.Map;
+
+/**
+ * Engine state just before a line was shown, taken every few lines so the
+ * History screen can jump back without replaying the whole story. Together
+ * with the checkpoint the story had passed, it is everything a jump needs:
+ * the script resumes at the checkpoint, replays the few steps up to the
+ * keyframe without showing them, and the stage is put back from here.
+ *
+ * The scene graph and layered background are immutable and shared with the
+ * live engine, so a keyframe costs little more than its variables.
+ */
+final class Keyframe {
+    final int step; // currentStep before the line
+    final int backlogSize; // History entries before the line; the line itself is entry backlogSize
+    final int choiceCount; // Menu answers given before the line
+    final VariableStore variables;
+    final boolean nvlMode;
+    final Checkpoint checkpoint; // Last checkpoint passed, or null to replay from the start
+
+    final SceneGraph scene;
+    final Map<String, SpriteAnimation> animations; // Copy; restarted when restored
+    final Map<String, IdleAnimation> idleAnimations; // Copy
+    final String background;
+    final LayeredBackground backgroundLayers;
+    final String music;
+    final String windowTitle;
+    final Point dialogPosition;
+    final double cameraZoom;
+    final double cameraX;
+    final double cameraY;
+
+    Keyframe(int step, int backlogSize, int choiceCount, VariableStore variables, boolean nvlMode,
+            Checkpoint checkpoint, SceneGraph scene, Map<String, SpriteAnimation> animations,
+            Map<String, IdleAnimation> idleAnimations, String background, LayeredBackground backgroundLayers,
+            String music, String windowTitle, Point dialogPosition, Camera camera) {
+        this.step = step;
+        this.backlogSize = backlogSize;
+        this.choiceCount = choiceCount;
+        this.variables = variables;
+        this.nvlMode = nvlMode;
+        this.checkpoint = checkpoint;
+        this.scene = scene;
+        this.animations = animations;
+        this.idleAnimations = idleAnimations;
+        this.background = background;
+        this.backgroundLayers = backgroundLayers;
+        this.music = music;
+        this.windowTitle = windowTitle;
+        this.dialogPosition = dialogPosition != null ? new Point(dialogPosition) : null;
+        this.cameraZoom = camera.getZoom();
+        this.cameraX = camera.getX();
+        this.cameraY = camera.getY();
+    }
+}
@@ -0,0 +1,83 @@
+package com.vnengine.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The keyframes of the current run, ordered by history position. A keyframe
+ * is taken every {@code stride} lines. Memory is bounded by thinning: when
+ * the index is full, every other keyframe is dropped and the stride doubles,
+ * so a long story stays evenly covered by at most {@code capacity}
+ * keyframes, a jump never passing more than a stride of lines.
+ *
+ * Written by the script thread, read by the EDT.
+ */
+final class KeyframeIndex {
+    private final int interval;
+    private final int capacity;
+    private final List<Keyframe> keyframes = new ArrayList<>();
+    private int stride;
+
+    KeyframeIndex(int interval, int capacity) {
+        this.interval = Math.max(1, interval);
+        this.capacity = Math.max(4, capacity);
+        this.stride = this.interval;
+    }
+
+    /**
+     * @return whether the line that becomes history entry {@code line} gets a keyframe
+     */
+    synchronized boolean wants(int line) {
+        return line % stride == 0;
+    }
+
+    /**
+     * Add a keyframe, replacing any at or after its history position: the
+     * story went another way from there, or is passing the same line again.
+     */
+    synchronized void add(Keyframe keyframe) {
+        truncate(keyframe.backlogSize - 1);
+        if (keyframes.size() >= capacity) {
+            thin();
+        }
+        if (keyframe.backlogSize % stride == 0) {
+            keyframes.add(keyframe);
+        }
+    }
+
+    /**
+     * @return the latest keyframe at or before history entry {@code line}, or null
+     */
+    synchronized Keyframe nearest(int line) {
+        for (int i = keyframes.size() - 1; i >= 0; i--) {
+            Keyframe k = keyframes.get(i);
+            if (k.backlogSize <= line)
+                return k;
+        }
+        return null;
+    }
+
+    /**
+     * Drop keyframes after history entry {@code line}.
+     */
+    synchronized void truncate(int line) {
+        while (!keyframes.isEmpty() && keyframes.get(keyframes.size() - 1).backlogSize > line) {
+            keyframes.remove(keyframes.size() - 1);
+        }
+    }
+
+    synchronized void clear() {
+        keyframes.clear();
+        stride = interval;
+    }
+
+    synchronized int size() {
+        return keyframes.size();
+    }
+
+    // Keep the keyframes on the doubled stride
+    private void thin() {
+        stride *= 2;
+        keyframes.removeIf(k -> k.backlogSize % stride != 0);
+    }
+}
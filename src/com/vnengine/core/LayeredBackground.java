@@ -0,0 +1,70 @@
+package com.vnengine.core;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A background made of several depth layers drawn back to front.
+ * Each layer scrolls by {@code depth} times the camera pan (0 = fixed sky,
+ * 1 = moves with the characters, above 1 = foreground) and can drift on its
+ * own at {@code scrollSpeed} base pixels per second. Layers repeat
+ * horizontally, so panoramic images should be seamless.
+ *
+ * Instances are immutable; {@link #layer} returns a new background.
+ */
+public class LayeredBackground implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static class Layer implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final String image;
+        public final double depth;
+        public final double scrollSpeed;
+
+        public Layer(String image, double depth, double scrollSpeed) {
+            this.image = image;
+            this.depth = depth;
+            this.scrollSpeed = scrollSpeed;
+        }
+    }
+
+    private final List<Layer> layers;
+
+    public LayeredBackground() {
+        this.layers = Collections.emptyList();
+    }
+
+    private LayeredBackground(List<Layer> layers) {
+        this.layers = Collections.unmodifiableList(layers);
+    }
+
+    public LayeredBackground layer(String image, double depth) {
+        return layer(image, depth, 0);
+    }
+
+    public LayeredBackground layer(String image, double depth, double scrollSpeed) {
+        List<Layer> copy = new ArrayList<>(layers);
+        copy.add(new Layer(image, depth, scrollSpeed));
+        return new LayeredBackground(copy);
+    }
+
+    public List<Layer> getLayers() {
+        return layers;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Layer l : layers) {
+            if (sb.length() > 0)
+                sb.append(" | ");
+            sb.append(l.image).append(" x").append(l.depth);
+            if (l.scrollSpeed != 0)
+                sb.append(" ~").append(l.scrollSpeed).append("px/s");
+        }
+        return sb.toString();
+    }
+}
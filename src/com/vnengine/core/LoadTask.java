@@ -0,0 +1,97 @@
+package com.vnengine.core;
+
+/**
+ * One load of a save slot, moving through its stages off the EDT. The task
+ * is also the load's cancellation token: a newer load or the player cancels
+ * it, and every stage checks it before touching the engine. Once the scene
+ * is restored the old run is gone, so from then on the load can no longer
+ * be cancelled, only replaced by another load.
+ *
+ * A jump back from the History screen is a load too, of a save built from
+ * a keyframe, which then passes the lines up to the one clicked.
+ */
+final class LoadTask {
+    static final int READING = 0;
+    static final int PREFETCHING = 1;
+    static final int RESTORING = 2;
+    static final int FAST_FORWARDING = 3;
+    static final int DONE = 4;
+
+    private static final String[] STAGE_NAMES = { "Reading save", "Loading images", "Restoring scene",
+            "Catching up", "Done" };
+    private static final String[] JUMP_STAGE_NAMES = { "Going back", "Going back", "Going back", "Going back",
+            "Done" };
+
+    final int slot;
+    final SaveData data; // Already in memory, instead of reading the slot
+    final Keyframe keyframe; // For a jump back, the keyframe data was built from
+    final int line; // For a jump back, the history entry to stop at
+    private volatile int stage = READING;
+    private volatile float progress = 0f; // Within the current stage, 0 to 1
+    private volatile boolean cancelled = false;
+
+    LoadTask(int slot) {
+        this.slot = slot;
+        this.data = null;
+        this.keyframe = null;
+        this.line = -1;
+    }
+
+    LoadTask(SaveData data, Keyframe keyframe, int line) {
+        this.slot = -1;
+        this.data = data;
+        this.keyframe = keyframe;
+        this.line = line;
+    }
+
+    int getStage() {
+        return stage;
+    }
+
+    String getStageName() {
+        return (keyframe != null ? JUMP_STAGE_NAMES : STAGE_NAMES)[stage];
+    }
+
+    void setStage(int stage) {
+        this.stage = stage;
+        this.progress = 0f;
+    }
+
+    void setProgress(float progress) {
+        this.progress = Math.max(0f, Math.min(1f, progress));
+    }
+
+    /**
+     * @return overall progress from 0 to 1; stages get equal shares
+     */
+    float getProgress() {
+        return Math.min(1f, (stage + progress) / DONE);
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return false if the load already restored the scene and must run on
+     */
+    synchronized boolean cancel() {
+        if (stage >= RESTORING)
+            return false;
+        cancelled = true;
+        return true;
+    }
+
+    /**
+     * Move to the restore stage unless cancelled; after this {@link #cancel}
+     * has no effect.
+     *
+     * @return false if the load was cancelled
+     */
+    synchronized boolean commit() {
+        if (cancelled)
+            return false;
+        setStage(RESTORING);
+        return true;
+    }
+}
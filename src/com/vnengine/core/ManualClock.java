@@ -0,0 +1,40 @@
+package com.vnengine.core;
+
+/**
+ * Clock that only moves when {@link #advance} is called. Threads sleeping
+ * on it wake once it has been stepped past their deadline.
+ */
+public class ManualClock implements EngineClock {
+    private long now;
+
+    public ManualClock() {
+        this(0);
+    }
+
+    public ManualClock(long startNanos) {
+        this.now = startNanos;
+    }
+
+    @Override
+    public synchronized long nanoTime() {
+        return now;
+    }
+
+    public synchronized void advance(long nanos) {
+        if (nanos > 0) {
+            now += nanos;
+            notifyAll();
+        }
+    }
+
+    public void advanceMillis(long millis) {
+        advance(millis * 1_000_000L);
+    }
+
+    @Override
+    public synchronized void sleepUntil(long deadline) throws InterruptedException {
+        while (now < deadline) {
+            wait();
+        }
+    }
+}
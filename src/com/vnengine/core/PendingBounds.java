@@ -0,0 +1,88 @@
+package com.vnengine.core;
+
+import java.awt.Dimension;
+import java.awt.GraphicsEnvironment;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Window;
+
+/**
+ * Latest requested geometry for a window. Animations and script commands
+ * overwrite it as often as they like; the engine tick applies it on the EDT
+ * at most once per frame as a single {@code setBounds}, so a busy EDT never
+ * builds up a queue of stale moves.
+ */
+public class PendingBounds {
+    private int x, y, width, height;
+    private boolean hasLocation, hasSize, centered;
+
+    public synchronized void setLocation(int x, int y) {
+        this.x = x;
+        this.y = y;
+        this.hasLocation = true;
+        this.centered = false;
+    }
+
+    public synchronized void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.hasSize = true;
+    }
+
+    /**
+     * Resize and center on screen, like {@code setLocationRelativeTo(null)}.
+     */
+    public synchronized void setSizeCentered(int width, int height) {
+        setSize(width, height);
+        this.hasLocation = false;
+        this.centered = true;
+    }
+
+    /**
+     * @return the pending location, or {@code current} if there is none
+     */
+    public synchronized Point getLocation(Point current) {
+        return hasLocation ? new Point(x, y) : current;
+    }
+
+    /**
+     * @return the pending size, or {@code current} if there is none
+     */
+    public synchronized Dimension getSize(Dimension current) {
+        return hasSize ? new Dimension(width, height) : current;
+    }
+
+    public synchronized void clear() {
+        hasLocation = hasSize = centered = false;
+    }
+
+    /**
+     * Apply and clear the pending geometry. Call on the EDT.
+     */
+    public void applyTo(Window window) {
+        Rectangle bounds = window.getBounds();
+        boolean resized;
+        synchronized (this) {
+            if (!hasLocation && !hasSize && !centered)
+                return;
+            resized = hasSize && (width != bounds.width || height != bounds.height);
+            if (hasSize) {
+                bounds.width = width;
+                bounds.height = height;
+            }
+            if (hasLocation) {
+                bounds.x = x;
+                bounds.y = y;
+            } else if (centered) {
+                Point center = GraphicsEnvironment.getLocalGraphicsEnvironment().getCenterPoint();
+                bounds.x = center.x - bounds.width / 2;
+                bounds.y = center.y - bounds.height / 2;
+            }
+            clear();
+        }
+        window.setBounds(bounds);
+        if (resized) {
+            window.revalidate();
+        }
+    }
+}
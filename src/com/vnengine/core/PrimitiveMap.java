@@ -0,0 +1,118 @@
+package com.vnengine.core;
+
+import java.io.Serializable;
+
+/**
+ * String-to-long hash map with open addressing, so values are stored
+ * unboxed in one array. Ints are stored as they are, doubles as their raw
+ * bits.
+ */
+class PrimitiveMap implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String[] keys = new String[16];
+    private long[] values = new long[16];
+    private int size = 0;
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(String key) {
+        return keys[slot(key)] != null;
+    }
+
+    long get(String key, long fallback) {
+        int i = slot(key);
+        return keys[i] != null ? values[i] : fallback;
+    }
+
+    void put(String key, long value) {
+        int i = slot(key);
+        if (keys[i] == null) {
+            if ((size + 1) * 4 > keys.length * 3) { // Keep the load factor under 0.75
+                grow();
+                i = slot(key);
+            }
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    boolean remove(String key) {
+        int i = slot(key);
+        if (keys[i] == null)
+            return false;
+        keys[i] = null;
+        size--;
+
+        // Shift later entries of the probe run back, so lookups never stop at the gap
+        int mask = keys.length - 1;
+        int gap = i;
+        for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+            int home = hash(keys[j]) & mask;
+            boolean movable = gap <= j ? (home <= gap || home > j) : (home <= gap && home > j);
+            if (movable) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                keys[j] = null;
+                gap = j;
+            }
+        }
+        return true;
+    }
+
+    void clear() {
+        java.util.Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    String[] keys() {
+        String[] result = new String[size];
+        int n = 0;
+        for (String key : keys) {
+            if (key != null) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    PrimitiveMap copy() {
+        PrimitiveMap copy = new PrimitiveMap();
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.size = size;
+        return copy;
+    }
+
+    // Slot holding key, or the empty slot where it would go
+    private int slot(String key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != null && !keys[i].equals(key)) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private void grow() {
+        String[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new String[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
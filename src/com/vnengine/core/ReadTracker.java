@@ -0,0 +1,192 @@
+package com.vnengine.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Remembers every dialogue line the player has ever seen, across saves and
+ * sessions.
+ *
+ * Lines are identified by a 64-bit hash of (script class, step, text) and
+ * kept in an open-addressing hash set that lives in a memory-mapped file,
+ * so startup only maps the file instead of reading it, and a lookup is a
+ * couple of memory reads. Writes land in the OS page cache right away; the
+ * file is forced to disk only by {@link #flush()}, which the engine calls on
+ * saves and at exit. A set of full hashes is used rather than a plain
+ * bitset indexed by hash, which would report unread lines as read once the
+ * story gets long.
+ */
+public class ReadTracker {
+    private static final int MAGIC = 0x564E5244; // "VNRD"
+    private static final int HEADER = 16; // Magic, capacity, count, reserved
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private static ReadTracker instance;
+
+    private final File file;
+    private FileChannel channel; // Null if the file could not be opened; tracking is then in memory only
+    private ByteBuffer table;
+    private int capacity; // Slots, a power of two
+    private int count;
+    private boolean dirty = false;
+
+    public static synchronized ReadTracker getInstance() {
+        if (instance == null) {
+            instance = new ReadTracker(new File("saves/read.bin"));
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::flush));
+        }
+        return instance;
+    }
+
+    public ReadTracker(File file) {
+        this.file = file;
+        try {
+            File dir = file.getAbsoluteFile().getParentFile();
+            if (dir != null) {
+                dir.mkdirs();
+            }
+            channel = new RandomAccessFile(file, "rw").getChannel();
+            if (channel.size() >= HEADER) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+                int storedCapacity = header.getInt(4);
+                if (header.getInt(0) == MAGIC && Integer.bitCount(storedCapacity) == 1
+                        && channel.size() >= HEADER + storedCapacity * 8L) {
+                    map(storedCapacity);
+                    count = table.getInt(8);
+                    return;
+                }
+                System.err.println("Read history in " + file + " is damaged, starting over.");
+            }
+            map(INITIAL_CAPACITY);
+            clearTable();
+        } catch (IOException e) {
+            System.err.println("Could not open read history " + file + ": " + e.getMessage());
+            allocateInMemory(INITIAL_CAPACITY);
+        }
+    }
+
+    /**
+     * Stable identity of a line: the same for the same line in every run.
+     */
+    public static long key(String scriptClass, int step, String text) {
+        long h = 0xcbf29ce484222325L; // FNV-1a
+        h = fnv(h, scriptClass);
+        h = (h ^ step) * 0x100000001b3L;
+        h = fnv(h, text);
+        return h != 0 ? h : 1; // 0 marks an empty slot
+    }
+
+    private static long fnv(long h, String s) {
+        if (s == null)
+            return (h ^ 0xff) * 0x100000001b3L;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        return (h ^ 0xfe) * 0x100000001b3L; // Separator, so ("ab", "c") differs from ("a", "bc")
+    }
+
+    public synchronized boolean isRead(long key) {
+        return table.getLong(slotOf(key)) == key;
+    }
+
+    /**
+     * @return true if the line had not been read before
+     */
+    public synchronized boolean markRead(long key) {
+        int offset = slotOf(key);
+        if (table.getLong(offset) == key)
+            return false;
+
+        if ((count + 1) * 2 > capacity) { // Keep probe runs short
+            grow();
+            offset = slotOf(key);
+        }
+        table.putLong(offset, key);
+        table.putInt(8, ++count);
+        dirty = true;
+        return true;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Write pending changes to disk.
+     */
+    public synchronized void flush() {
+        if (dirty && table instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) table).force();
+        }
+        dirty = false;
+    }
+
+    // Byte offset of the slot holding key, or of the empty slot where it would go
+    private int slotOf(long key) {
+        int mask = capacity - 1;
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        while (true) {
+            long stored = table.getLong(HEADER + slot * 8);
+            if (stored == 0 || stored == key)
+                return HEADER + slot * 8;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void map(int slots) throws IOException {
+        capacity = slots;
+        table = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + slots * 8L);
+        table.putInt(0, MAGIC);
+        table.putInt(4, capacity);
+    }
+
+    private void allocateInMemory(int slots) {
+        channel = null;
+        capacity = slots;
+        table = ByteBuffer.allocate(HEADER + slots * 8);
+        table.putInt(0, MAGIC);
+        table.putInt(4, capacity);
+    }
+
+    private void clearTable() {
+        for (int i = 0; i < capacity; i++) {
+            table.putLong(HEADER + i * 8, 0);
+        }
+        count = 0;
+        table.putInt(8, 0);
+    }
+
+    private void grow() {
+        long[] keys = new long[count];
+        int n = 0;
+        for (int i = 0; i < capacity && n < count; i++) {
+            long stored = table.getLong(HEADER + i * 8);
+            if (stored != 0) {
+                keys[n++] = stored;
+            }
+        }
+
+        int slots = capacity * 2;
+        if (channel != null) {
+            try {
+                map(slots);
+            } catch (IOException e) {
+                System.err.println("Could not grow read history " + file + ": " + e.getMessage());
+                allocateInMemory(slots);
+            }
+        } else {
+            allocateInMemory(slots);
+        }
+        clearTable();
+        for (int i = 0; i < n; i++) {
+            table.putLong(slotOf(keys[i]), keys[i]);
+        }
+        count = n;
+        table.putInt(8, count);
+        dirty = true;
+    }
+}
@@ -0,0 +1,14 @@
+package com.vnengine.core;
+
+/**
+ * A script that can continue from one of its checkpoints instead of from
+ * the beginning.
+ */
+public interface Resumable {
+    /**
+     * @return code that runs the rest of the story from the checkpoint
+     *         {@code id} (starting with that {@code checkpoint(id)} call), or
+     *         null to replay from the start
+     */
+    Runnable resumePoint(String id);
+}
@@ -12,14 +12,28 @@ public class SaveData implements Serializable {
 
     // Full State Snapshot
     public String currentBackground;
+    public LayeredBackground backgroundLayers; // Parallax background, replaces currentBackground when set
     public String currentMusic;
+    public SceneGraph scene; // Characters on stage
+    // Replaced by scene; only read from older saves
     public java.util.Map<String, String> visibleCharacters;
     public java.util.Map<String, java.awt.Point> characterPositions;
     public java.util.Map<String, Double> characterScales;
+    public java.util.Map<String, IdleAnimation> idleAnimations; // Sprite -> idle set
+    public java.util.Map<String, SpriteAnimation> animations; // Entity name -> sprite-sheet playback
     public java.awt.Dimension windowSize;
     public java.awt.Point windowPosition; // Window screen position
     public String windowTitle; // Custom window title
     public java.awt.Point dialogPosition; // Custom dialog box position
+    public Double cameraZoom; // Null for saves made before the camera existed
+    public java.awt.geom.Point2D.Double cameraPosition;
+
+    // Script state; all null for older saves, which replay from the start
+    public VariableStore variables; // At the time of the save; wins over what the replay recomputes
+    public Boolean nvlMode; // At the time of the save
+    public Checkpoint checkpoint; // Last checkpoint before the save
+    public java.util.List<GameEngine.LogEntry> backlog;
+    public int[] choices; // Every menu answer up to the save, in order
 
     public String description;
 
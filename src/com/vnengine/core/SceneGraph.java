@@ -0,0 +1,95 @@
+package com.vnengine.core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of everything on stage, in draw order (by z, then by
+ * the order nodes were added).
+ *
+ * The engine publishes the current snapshot through one volatile reference
+ * and replaces it on every change, so the renderer can read a consistent
+ * scene for a whole frame without locking, and a save only has to keep a
+ * reference to it.
+ */
+public final class SceneGraph implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final SceneGraph EMPTY = new SceneGraph(new SceneNode[0]);
+
+    private final SceneNode[] nodes;
+    private transient List<SceneNode> view;
+
+    private SceneGraph(SceneNode[] nodes) {
+        this.nodes = nodes;
+    }
+
+    public SceneNode get(String name) {
+        for (SceneNode node : nodes) {
+            if (node.name.equals(name))
+                return node;
+        }
+        return null;
+    }
+
+    public boolean contains(String name) {
+        return get(name) != null;
+    }
+
+    /**
+     * @return the nodes in draw order
+     */
+    public List<SceneNode> getNodes() {
+        if (view == null) {
+            view = Collections.unmodifiableList(Arrays.asList(nodes));
+        }
+        return view;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public boolean isEmpty() {
+        return nodes.length == 0;
+    }
+
+    /**
+     * @return a snapshot with {@code node} added, or replacing the node with
+     *         the same name
+     */
+    public SceneGraph with(SceneNode node) {
+        SceneNode[] next = null;
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i].name.equals(node.name)) {
+                if (nodes[i] == node)
+                    return this;
+                next = nodes.clone();
+                next[i] = node;
+                break;
+            }
+        }
+        if (next == null) {
+            next = Arrays.copyOf(nodes, nodes.length + 1);
+            next[nodes.length] = node;
+        }
+        // Stable sort, so nodes with the same z keep their order
+        Arrays.sort(next, Comparator.comparingInt(n -> n.z));
+        return new SceneGraph(next);
+    }
+
+    public SceneGraph without(String name) {
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i].name.equals(name)) {
+                SceneNode[] next = new SceneNode[nodes.length - 1];
+                System.arraycopy(nodes, 0, next, 0, i);
+                System.arraycopy(nodes, i + 1, next, i, nodes.length - i - 1);
+                return next.length == 0 ? EMPTY : new SceneGraph(next);
+            }
+        }
+        return this;
+    }
+}
@@ -0,0 +1,75 @@
+package com.vnengine.core;
+
+import java.awt.Point;
+import java.io.Serializable;
+
+/**
+ * One character (or other sprite entity) on stage. Immutable: the
+ * {@code with...} methods return changed copies, which are put into a new
+ * {@link SceneGraph} snapshot.
+ */
+public final class SceneNode implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final String name;
+    public final String sprite;
+    private final Point position; // Unscaled coordinates; null lets the window lay it out in a row. Never exposed
+    public final double scale;
+    public final float alpha;
+    public final int z; // Higher is drawn on top
+
+    public SceneNode(String name, String sprite) {
+        this(name, sprite, null, 1.0, 1f, 0);
+    }
+
+    public SceneNode(String name, String sprite, Point position, double scale, float alpha, int z) {
+        this.name = name;
+        this.sprite = sprite;
+        this.position = position != null ? new Point(position) : null;
+        this.scale = scale;
+        this.alpha = Math.max(0f, Math.min(1f, alpha));
+        this.z = z;
+    }
+
+    public SceneNode withSprite(String sprite) {
+        return new SceneNode(name, sprite, position, scale, alpha, z);
+    }
+
+    public SceneNode withPosition(int x, int y) {
+        return new SceneNode(name, sprite, new Point(x, y), scale, alpha, z);
+    }
+
+    public SceneNode withScale(double scale) {
+        return new SceneNode(name, sprite, position, scale, alpha, z);
+    }
+
+    public SceneNode withAlpha(float alpha) {
+        return new SceneNode(name, sprite, position, scale, alpha, z);
+    }
+
+    public SceneNode withZ(int z) {
+        return new SceneNode(name, sprite, position, scale, alpha, z);
+    }
+
+    /**
+     * @return false if the node is laid out automatically
+     */
+    public boolean hasPosition() {
+        return position != null;
+    }
+
+    public int getX() {
+        return position != null ? position.x : 0;
+    }
+
+    public int getY() {
+        return position != null ? position.y : 0;
+    }
+
+    /**
+     * @return a copy of the position, or null if the node is laid out automatically
+     */
+    public Point getPosition() {
+        return position != null ? new Point(position) : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.vnengine.core;
+
+/**
+ * Told what a running script does, on the script thread. Nothing is
+ * reported for lines and assets passed over while replaying a load.
+ */
+public interface ScriptListener {
+    default void lineShown(String speaker, String text) {
+    }
+
+    /**
+     * @param kind "background", "character", "animation", "music", "sound"
+     *             or "movie"
+     */
+    default void assetUsed(String kind, String name) {
+    }
+
+    default void checkpointReached(String id) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.vnengine.core;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One run of a script on its own thread, plus the tracks it started. A
+ * track is a child scope; cancelling a scope cancels every track below it,
+ * so loading a save stops the old story and everything running alongside
+ * it in one call, and nothing outlives the run that started it.
+ *
+ * Script threads are virtual threads on Java 21 and later (looked up by
+ * reflection, so the engine still builds and runs on older JDKs, where it
+ * falls back to platform threads). Blocking DSL calls park them without
+ * holding a carrier thread, so hundreds of idle tracks cost almost nothing.
+ */
+final class ScriptScope {
+    private static final ThreadLocal<ScriptScope> CURRENT = new ThreadLocal<>();
+
+    // Thread.ofVirtual() and Thread.Builder.name/unstarted, when the JDK has them
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            name = builder.getMethod("name", String.class);
+            unstarted = builder.getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null; // Before Java 21
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_UNSTARTED = unstarted;
+    }
+
+    private final ScriptScope parent;
+    private final String name;
+    private final Map<String, ScriptScope> tracks = new ConcurrentHashMap<>();
+    private volatile Thread thread;
+    private volatile boolean cancelled = false;
+
+    ScriptScope(String name) {
+        this(null, name);
+    }
+
+    private ScriptScope(ScriptScope parent, String name) {
+        this.parent = parent;
+        this.name = name;
+    }
+
+    /**
+     * @return the scope the calling thread runs in, or null outside a script
+     *         thread (e.g. the EDT, or a script run by a tool)
+     */
+    static ScriptScope current() {
+        return CURRENT.get();
+    }
+
+    static boolean isVirtualThreadsAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    boolean isTrack() {
+        return parent != null;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @return the story scope this track belongs to, or this scope itself
+     */
+    ScriptScope root() {
+        return parent != null ? parent.root() : this;
+    }
+
+    boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * Run {@code body} on a new thread belonging to this scope. Call once.
+     */
+    void start(Runnable body) {
+        Thread t = newThread("script-" + name, () -> {
+            CURRENT.set(this);
+            try {
+                body.run();
+            } finally {
+                CURRENT.remove();
+                if (parent != null) {
+                    parent.tracks.remove(name, this);
+                }
+            }
+        });
+        thread = t;
+        t.start();
+        if (isCancelled()) {
+            t.interrupt(); // Cancelled while starting
+        }
+    }
+
+    /**
+     * Create a track called {@code name} under this scope, cancelling any
+     * running track with the same name. Start it with {@link #start}.
+     */
+    ScriptScope fork(String name) {
+        ScriptScope track = new ScriptScope(this, name);
+        ScriptScope old = tracks.put(name, track);
+        if (old != null) {
+            old.cancel();
+        }
+        if (isCancelled()) {
+            track.cancel();
+        }
+        return track;
+    }
+
+    /**
+     * @return the running track called {@code name}, or null
+     */
+    ScriptScope getTrack(String name) {
+        return tracks.get(name);
+    }
+
+    /**
+     * Stop this scope and all of its tracks: blocking calls in them throw
+     * "Script cancelled" instead of returning.
+     */
+    void cancel() {
+        cancelled = true;
+        for (ScriptScope track : tracks.values()) {
+            track.cancel();
+        }
+        Thread t = thread;
+        if (t != null && t != Thread.currentThread()) {
+            t.interrupt();
+        }
+    }
+
+    boolean isAlive() {
+        Thread t = thread;
+        return t != null && t.isAlive();
+    }
+
+    /**
+     * Wait up to {@code millis} for this scope's thread to end.
+     *
+     * @return whether it ended
+     */
+    boolean join(long millis) throws InterruptedException {
+        Thread t = thread;
+        if (t == null)
+            return true;
+        t.join(millis);
+        return !t.isAlive();
+    }
+
+    private static Thread newThread(String name, Runnable body) {
+        if (OF_VIRTUAL != null) {
+            try {
+                Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+                return (Thread) BUILDER_UNSTARTED.invoke(builder, body);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Virtual threads unavailable, using platform threads: " + e);
+            }
+        }
+        return new Thread(body, name);
+    }
+}
@@ -15,6 +15,7 @@ public class SettingsManager {
     private float sfxVolume = 1.0f;
     private float textSpeed = 0.5f; // 0.1 (slow) to 2.0 (fast)
     private boolean fullscreen = false;
+    private boolean skipUnread = false; // Skip mode also skips lines never seen before
 
     private SettingsManager() {
         props = new Properties();
@@ -37,6 +38,7 @@ public class SettingsManager {
                 sfxVolume = Float.parseFloat(props.getProperty("sfxVolume", "1.0"));
                 textSpeed = Float.parseFloat(props.getProperty("textSpeed", "0.5"));
                 fullscreen = Boolean.parseBoolean(props.getProperty("fullscreen", "false"));
+                skipUnread = Boolean.parseBoolean(props.getProperty("skipUnread", "false"));
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -48,6 +50,7 @@ public class SettingsManager {
         props.setProperty("sfxVolume", String.valueOf(sfxVolume));
         props.setProperty("textSpeed", String.valueOf(textSpeed));
         props.setProperty("fullscreen", String.valueOf(fullscreen));
+        props.setProperty("skipUnread", String.valueOf(skipUnread));
 
         try (FileOutputStream out = new FileOutputStream(settingsFile)) {
             props.store(out, "VN Engine Settings");
@@ -87,4 +90,12 @@ public class SettingsManager {
     public void setFullscreen(boolean v) {
         this.fullscreen = v;
     }
+
+    public boolean isSkipUnread() {
+        return skipUnread;
+    }
+
+    public void setSkipUnread(boolean v) {
+        this.skipUnread = v;
+    }
 }
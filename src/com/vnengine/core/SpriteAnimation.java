@@ -0,0 +1,47 @@
+package com.vnengine.core;
+
+import java.io.Serializable;
+
+/**
+ * Frame-sequence playback from a single sprite sheet laid out in a grid,
+ * read left to right, top to bottom. The current frame is derived from the
+ * clock, so playback speed does not depend on the frame rate.
+ * A column count of 0 means a horizontal strip of square frames, resolved
+ * once the sheet is decoded.
+ */
+public class SpriteAnimation implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final String sheet;
+    public final int columns;
+    public final int rows;
+    public final double fps;
+    public final boolean loop;
+    public final long startNanos;
+
+    public SpriteAnimation(String sheet, int columns, int rows, double fps, boolean loop, long startNanos) {
+        this.sheet = sheet;
+        this.columns = Math.max(0, columns);
+        this.rows = Math.max(1, rows);
+        this.fps = fps > 0 ? fps : 12;
+        this.loop = loop;
+        this.startNanos = startNanos;
+    }
+
+    public int frameAt(long now, int frameCount) {
+        long frame = (long) Math.floor((now - startNanos) * fps / 1_000_000_000.0);
+        int count = Math.max(1, frameCount);
+        if (frame < 0)
+            return 0;
+        if (loop)
+            return (int) (frame % count);
+        return (int) Math.min(frame, count - 1);
+    }
+
+    /**
+     * Same animation restarted at {@code now}, used after loading a save.
+     */
+    public SpriteAnimation restartedAt(long now) {
+        return new SpriteAnimation(sheet, columns, rows, fps, loop, now);
+    }
+}
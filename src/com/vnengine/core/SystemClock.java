@@ -0,0 +1,19 @@
+package com.vnengine.core;
+
+/**
+ * Real time, from {@link System#nanoTime()}.
+ */
+public class SystemClock implements EngineClock {
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void sleepUntil(long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.vnengine.core;
+
+/**
+ * Handle for one story variable, e.g. {@code var("affection").add(5)}. Reads
+ * and writes go straight to the {@link VariableStore} it came from.
+ */
+public final class Variable {
+    private final VariableStore store;
+    public final String name;
+
+    Variable(VariableStore store, String name) {
+        this.store = store;
+        this.name = name;
+    }
+
+    public int getInt() {
+        return store.getInt(name);
+    }
+
+    public double getDouble() {
+        return store.getDouble(name);
+    }
+
+    public boolean getBoolean() {
+        return store.getBoolean(name);
+    }
+
+    public boolean isTrue() {
+        return store.getBoolean(name);
+    }
+
+    public String getString() {
+        return store.getString(name);
+    }
+
+    public boolean isSet() {
+        return store.contains(name);
+    }
+
+    public void set(int value) {
+        store.setInt(name, value);
+    }
+
+    public void set(double value) {
+        store.setDouble(name, value);
+    }
+
+    public void set(boolean value) {
+        store.setBoolean(name, value);
+    }
+
+    public void set(String value) {
+        store.setString(name, value);
+    }
+
+    /**
+     * @return the new value
+     */
+    public int add(int amount) {
+        return store.add(name, amount);
+    }
+
+    /**
+     * @return the new value
+     */
+    public int increment() {
+        return store.add(name, 1);
+    }
+
+    public void clear() {
+        store.remove(name);
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + store.getString(name);
+    }
+}
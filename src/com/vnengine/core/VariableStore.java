@@ -0,0 +1,184 @@
+package com.vnengine.core;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Story variables: affection points, flags, counters, names. Saved with the
+ * game, so a load can restore them directly instead of replaying the script
+ * to rebuild them.
+ *
+ * Each variable holds one type at a time; setting a value of another type
+ * replaces it. Reading a variable as a different type converts where it
+ * makes sense (an int reads as a double, a non-zero number as true) and
+ * otherwise gives the type's default. Ints, doubles and flags live in
+ * unboxed hash maps, so reading and writing them doesn't allocate.
+ */
+public class VariableStore implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final PrimitiveMap ints;
+    private final PrimitiveMap doubles; // Raw bits
+    private final PrimitiveMap flags; // 0 or 1
+    private final HashMap<String, String> strings;
+    private transient Map<String, Variable> handles;
+
+    public VariableStore() {
+        this(new PrimitiveMap(), new PrimitiveMap(), new PrimitiveMap(), new HashMap<>());
+    }
+
+    private VariableStore(PrimitiveMap ints, PrimitiveMap doubles, PrimitiveMap flags,
+            HashMap<String, String> strings) {
+        this.ints = ints;
+        this.doubles = doubles;
+        this.flags = flags;
+        this.strings = strings;
+    }
+
+    /**
+     * @return a handle for reading and writing one variable
+     */
+    public synchronized Variable var(String name) {
+        if (handles == null) {
+            handles = new HashMap<>();
+        }
+        return handles.computeIfAbsent(name, n -> new Variable(this, n));
+    }
+
+    public synchronized int getInt(String name) {
+        if (ints.containsKey(name))
+            return (int) ints.get(name, 0);
+        if (doubles.containsKey(name))
+            return (int) Double.longBitsToDouble(doubles.get(name, 0));
+        return (int) flags.get(name, 0);
+    }
+
+    public synchronized double getDouble(String name) {
+        if (doubles.containsKey(name))
+            return Double.longBitsToDouble(doubles.get(name, 0));
+        if (ints.containsKey(name))
+            return ints.get(name, 0);
+        return flags.get(name, 0);
+    }
+
+    public synchronized boolean getBoolean(String name) {
+        if (flags.containsKey(name))
+            return flags.get(name, 0) != 0;
+        if (ints.containsKey(name))
+            return ints.get(name, 0) != 0;
+        if (doubles.containsKey(name))
+            return Double.longBitsToDouble(doubles.get(name, 0)) != 0;
+        return strings.containsKey(name);
+    }
+
+    /**
+     * @return the variable as text, or null if it is not set
+     */
+    public synchronized String getString(String name) {
+        String value = strings.get(name);
+        if (value != null)
+            return value;
+        if (ints.containsKey(name))
+            return String.valueOf(ints.get(name, 0));
+        if (doubles.containsKey(name))
+            return String.valueOf(Double.longBitsToDouble(doubles.get(name, 0)));
+        if (flags.containsKey(name))
+            return String.valueOf(flags.get(name, 0) != 0);
+        return null;
+    }
+
+    public synchronized void setInt(String name, int value) {
+        removeOthers(name, ints);
+        ints.put(name, value);
+    }
+
+    public synchronized void setDouble(String name, double value) {
+        removeOthers(name, doubles);
+        doubles.put(name, Double.doubleToRawLongBits(value));
+    }
+
+    public synchronized void setBoolean(String name, boolean value) {
+        removeOthers(name, flags);
+        flags.put(name, value ? 1 : 0);
+    }
+
+    public synchronized void setString(String name, String value) {
+        if (value == null) {
+            remove(name);
+            return;
+        }
+        removeOthers(name, null);
+        strings.put(name, value);
+    }
+
+    /**
+     * Add to an int variable (unset counts as 0).
+     *
+     * @return the new value
+     */
+    public synchronized int add(String name, int amount) {
+        int value = getInt(name) + amount;
+        setInt(name, value);
+        return value;
+    }
+
+    public synchronized boolean contains(String name) {
+        return ints.containsKey(name) || doubles.containsKey(name) || flags.containsKey(name)
+                || strings.containsKey(name);
+    }
+
+    public synchronized void remove(String name) {
+        removeOthers(name, null);
+        strings.remove(name);
+    }
+
+    public synchronized void clear() {
+        ints.clear();
+        doubles.clear();
+        flags.clear();
+        strings.clear();
+    }
+
+    /**
+     * @return every variable name, sorted
+     */
+    public synchronized java.util.Set<String> names() {
+        TreeSet<String> names = new TreeSet<>(strings.keySet());
+        java.util.Collections.addAll(names, ints.keys());
+        java.util.Collections.addAll(names, doubles.keys());
+        java.util.Collections.addAll(names, flags.keys());
+        return names;
+    }
+
+    /**
+     * @return an independent copy, e.g. for a save
+     */
+    public synchronized VariableStore copy() {
+        return new VariableStore(ints.copy(), doubles.copy(), flags.copy(), new HashMap<>(strings));
+    }
+
+    // Drop the name from every map except keep
+    private void removeOthers(String name, PrimitiveMap keep) {
+        if (keep != ints)
+            ints.remove(name);
+        if (keep != doubles)
+            doubles.remove(name);
+        if (keep != flags)
+            flags.remove(name);
+        if (keep != null)
+            strings.remove(name);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (String name : names()) {
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(name).append('=').append(getString(name));
+        }
+        return sb.append('}').toString();
+    }
+}
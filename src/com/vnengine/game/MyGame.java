@@ -42,11 +42,18 @@ public class MyGame extends GameScript {
         show(SAKURA, "demo_girl_happy");
         say(SAKURA, "I'm SO excited to show you everything this engine can do!");
 
-        // ========================================
-        // MAIN MENU LOOP
-        // ========================================
+        mainLoop();
+    }
+
+    // ========================================
+    // MAIN MENU LOOP
+    // ========================================
+    private void mainLoop() {
         boolean running = true;
         while (running) {
+            // Saves made from here on load straight back into this loop
+            checkpoint("menu");
+
             show(SAKURA, "demo_girl_smile");
             say(SAKURA, "What would you like to see?");
 
@@ -57,6 +64,10 @@ public class MyGame extends GameScript {
                     "System Features (Save/Load, Errors, Website)",
                     "End Demo");
 
+            if (choice < 4) {
+                var("demos_seen").increment();
+            }
+
             if (choice == 0) {
                 characterDemo();
             } else if (choice == 1) {
@@ -73,6 +84,13 @@ public class MyGame extends GameScript {
         conclusion();
     }
 
+    @Override
+    public Runnable resumePoint(String id) {
+        if (id.equals("menu"))
+            return this::mainLoop;
+        return null;
+    }
+
     // ========================================
     // DEMO: Characters
     // ========================================
@@ -90,10 +108,7 @@ public class MyGame extends GameScript {
 
         for (String expr : expressions) {
             show(SAKURA, expr);
-            try {
-                Thread.sleep(500);
-            } catch (Exception e) {
-            }
+            pause(500);
         }
 
         say(SAKURA, "And that's just a few of them!");
@@ -173,13 +188,31 @@ public class MyGame extends GameScript {
         subWindowSay(subID, "Clone", "Hi! I'm running in a separate window!");
         say(SAKURA, "She can talk, move, and emote independently.");
 
-        // Move character in subwindow
-        moveInSubWindow(subID, "Clone", 300, 0);
-        subWindowSay(subID, "Clone", "I'm moving inside my window!");
+        // The clone gets a track of her own: she keeps pacing and chatting on
+        // her own timer while the main window waits for your clicks
+        track("clone", () -> {
+            String[] lines = {
+                    "I'm moving inside my window!",
+                    "Nobody has to click for me to keep going.",
+                    "Is she talking about me again?",
+                    "La la la~"
+            };
+            String[] faces = { "demo_girl_happy", "demo_girl_smug", "demo_girl_smile", "demo_girl_neutral" };
+            int i = 0;
+            while (true) {
+                int x = i % 2 == 0 ? 300 : 100;
+                showInSubWindow(subID, "Clone", faces[i % faces.length], x, 0);
+                subWindowSay(subID, "Clone", lines[i % lines.length]);
+                pause(1500);
+                i++;
+            }
+        });
 
-        showInSubWindow(subID, "Clone", "demo_girl_smug", 300, 0);
+        say(SAKURA, "Look, she's pacing around while we talk. That's a track: a script running alongside the story.");
         say(SAKURA, "You can control as many of these as your PC can handle!");
 
+        stopTrack("clone");
+        subWindowSay(subID, "Clone", "Wait, where is everyone going?");
         // Close
         say(SAKURA, "Bye bye clone!");
         closeSubWindow(subID);
@@ -232,6 +265,11 @@ public class MyGame extends GameScript {
         show(SAKURA, "demo_girl_happy");
         say(SAKURA, "And that concludes our demo!");
 
+        int seen = var("demos_seen").getInt();
+        if (seen > 0) {
+            say(SAKURA, "You watched " + seen + (seen == 1 ? " demo" : " demos") + " with me today.");
+        }
+
         say(SAKURA, "Thank you for checking out the Java Visual Novel Engine.");
         say(SAKURA, "Have fun creating your own stories!");
 
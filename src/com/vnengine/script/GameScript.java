@@ -1,70 +1,206 @@
 package com.vnengine.script;
 
+import com.vnengine.core.AnimationGroup;
 import com.vnengine.core.GameEngine;
+import com.vnengine.core.IdleAnimation;
+import com.vnengine.core.LayeredBackground;
+import com.vnengine.core.Resumable;
+import com.vnengine.core.Variable;
 
-public abstract class GameScript implements Runnable {
+public abstract class GameScript implements Runnable, Resumable {
     protected GameEngine engine;
+    private int nextLookAhead = 0; // Step of the next look-ahead
 
     public void setEngine(GameEngine engine) {
         this.engine = engine;
     }
 
+    // Every command goes through here, so a story cancelled by a load (or a
+    // stopped track) stops at its next command instead of changing the game
+    // that replaced it
+    private GameEngine engine() {
+        engine.checkCancelled();
+        return engine;
+    }
+
     // --- DSL Methods ---
 
     protected void scene(String backgroundName) {
-        engine.setBackground(backgroundName);
-        if (!engine.isSkipping()) {
+        engine().setBackground(backgroundName);
+        if (!engine().isSkipping()) {
             sleep(100); // Small delay for effect
         }
     }
 
+    /**
+     * Set a parallax background, e.g.
+     * {@code scene(layers().layer("sky", 0).layer("city", 0.4).layer("street", 1.0, 15));}
+     */
+    protected void scene(LayeredBackground background) {
+        engine().setLayeredBackground(background);
+        if (!engine().isSkipping()) {
+            sleep(100); // Small delay for effect
+        }
+    }
+
+    protected LayeredBackground layers() {
+        return new LayeredBackground();
+    }
+
     protected void show(String characterName, String imageName) {
-        engine.showCharacter(characterName, imageName);
+        engine().showCharacter(characterName, imageName);
     }
 
     protected void show(String characterName, String imageName, int x, int y) {
-        engine.showCharacter(characterName, imageName, x, y);
+        engine().showCharacter(characterName, imageName, x, y);
     }
 
     protected void move(String characterName, int x, int y) {
-        engine.moveCharacter(characterName, x, y);
+        engine().moveCharacter(characterName, x, y);
+    }
+
+    /**
+     * Give a sprite idle animations, e.g.
+     * {@code idle("demo_girl_neutral", idle().blink("demo_girl_neutral_blink", 3).breathing(0.01, 4000));}
+     */
+    protected void idle(String sprite, IdleAnimation animation) {
+        engine().setIdleAnimation(sprite, animation);
+    }
+
+    protected IdleAnimation idle() {
+        return new IdleAnimation();
+    }
+
+    /**
+     * Play a horizontal sprite sheet of square frames on a character or
+     * effect. Effects that are not on screen yet are shown like a character.
+     */
+    protected void animate(String name, String sheet, double fps, boolean loop) {
+        engine().playAnimation(name, sheet, 0, 1, fps, loop);
+    }
+
+    protected void animate(String name, String sheet, int columns, int rows, double fps, boolean loop) {
+        engine().playAnimation(name, sheet, columns, rows, fps, loop);
+    }
+
+    protected void stopAnimate(String name) {
+        engine().stopAnimation(name);
     }
 
     protected void hide(String characterName) {
-        engine.hideCharacter(characterName);
+        engine().hideCharacter(characterName);
     }
 
     // Dialog Control
     protected void dialogPos(int x, int y) {
-        engine.setDialogPosition(x, y);
+        engine().setDialogPosition(x, y);
     }
 
     protected void dialogReset() {
-        engine.resetDialogPosition();
+        engine().resetDialogPosition();
     }
 
     protected void say(String characterName, String text) {
-        engine.say(characterName, text);
+        lookAhead();
+        engine().say(characterName, text);
     }
 
     protected void narrator(String text) {
-        engine.say(null, text);
+        lookAhead();
+        engine().say(null, text);
+    }
+
+    /**
+     * Play a cutscene from resources/movies and wait until it ends (or the
+     * player clicks to skip it).
+     */
+    protected void movie(String name) {
+        engine().playMovie(name, 0);
+    }
+
+    protected void movie(String name, double fps) {
+        engine().playMovie(name, fps);
+    }
+
+    /**
+     * Switch to NVL mode: following lines pile up on a full-screen page,
+     * which turns by itself when it is full.
+     */
+    protected void nvl() {
+        engine().setNvlMode(true);
+    }
+
+    /**
+     * Start a fresh NVL page.
+     */
+    protected void nvlClear() {
+        engine().clearNvlPage();
+    }
+
+    /**
+     * Back to the usual dialogue box.
+     */
+    protected void adv() {
+        engine().setNvlMode(false);
     }
 
     protected int menu(String... options) {
-        return engine.promptChoice(options);
+        if (prefetching()) {
+            prefetchBranches(options.length);
+        }
+        return engine().promptChoice(options);
+    }
+
+    // --- Asset Prefetching ---
+
+    /**
+     * Start loading images, music or sounds before they are needed, e.g.
+     * {@code preload("bg_festival", "Festival Theme");}. Usually not needed:
+     * the engine looks ahead in the script by itself.
+     */
+    protected void preload(String... names) {
+        for (String name : names) {
+            engine().preload(name);
+        }
+    }
+
+    /**
+     * Prefetch the assets of the next few lines. By default a copy of this
+     * script is dry-run ahead of the real one, in the background.
+     */
+    protected void prefetchAhead() {
+        LookAhead.ahead(this, engine);
+    }
+
+    /**
+     * Prefetch the start of every option of the menu about to show.
+     */
+    protected void prefetchBranches(int count) {
+        LookAhead.branches(this, engine, count);
+    }
+
+    private boolean prefetching() {
+        return engine().isLookAhead() && !engine().isSkipping() && !engine().isFastForwarding();
+    }
+
+    // Look ahead again once half of the last look-ahead has been played
+    private void lookAhead() {
+        if (!prefetching() || engine().getCurrentStep() < nextLookAhead)
+            return;
+        nextLookAhead = engine().getCurrentStep() + LookAhead.LINES / 2;
+        prefetchAhead();
     }
 
     protected void playMusic(String name) {
-        engine.playMusic(name);
+        engine().playMusic(name);
     }
 
     protected void stopMusic() {
-        engine.stopMusic();
+        engine().stopMusic();
     }
 
     protected void playSound(String name) {
-        engine.playSound(name);
+        engine().playSound(name);
     }
 
     protected void music(String name) {
@@ -77,11 +213,11 @@ public abstract class GameScript implements Runnable {
 
     // --- Meta Features ---
     protected void windowMove(int x, int y) {
-        engine.setWindowPosition(x, y);
+        engine().setWindowPosition(x, y);
     }
 
     protected void windowCenter() {
-        engine.centerWindow();
+        engine().centerWindow();
     }
 
     protected void windowCenter(int duration) {
@@ -90,55 +226,100 @@ public abstract class GameScript implements Runnable {
 
     protected void windowCenter(int duration, String easing) {
         try {
-            com.vnengine.util.Easing e = com.vnengine.util.Easing.valueOf(easing.toUpperCase());
-            engine.centerWindow(duration, e);
+            com.vnengine.util.EasingFunction e = com.vnengine.util.EasingFunction.forName(easing);
+            engine().centerWindow(duration, e);
         } catch (IllegalArgumentException ex) {
             System.err.println("Invalid easing: " + easing + ", using default.");
-            engine.centerWindow(duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
+            engine().centerWindow(duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
         }
     }
 
     protected void windowShake(int intensity, int duration) {
-        engine.shakeWindow(intensity, duration);
+        engine().shakeWindow(intensity, duration);
     }
 
     protected void windowSlide(int x, int y, int duration) {
-        engine.slideWindow(x, y, duration);
+        engine().slideWindow(x, y, duration);
     }
 
     protected void windowSlide(int x, int y, int duration, String easing) {
         try {
-            com.vnengine.util.Easing e = com.vnengine.util.Easing.valueOf(easing.toUpperCase());
-            engine.slideWindow(x, y, duration, e);
+            com.vnengine.util.EasingFunction e = com.vnengine.util.EasingFunction.forName(easing);
+            engine().slideWindow(x, y, duration, e);
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Invalid easing: " + easing + ", using default.");
+            engine().slideWindow(x, y, duration);
+        }
+    }
+
+    // --- Camera ---
+    protected void cameraZoom(double zoom) {
+        engine().setCameraZoom(zoom, 0, null);
+    }
+
+    protected void cameraZoom(double zoom, int duration) {
+        cameraZoom(zoom, duration, "EASE_IN_OUT_CUBIC");
+    }
+
+    protected void cameraZoom(double zoom, int duration, String easing) {
+        try {
+            com.vnengine.util.EasingFunction e = com.vnengine.util.EasingFunction.forName(easing);
+            engine().setCameraZoom(zoom, duration, e);
         } catch (IllegalArgumentException ex) {
             System.err.println("Invalid easing: " + easing + ", using default.");
-            engine.slideWindow(x, y, duration);
+            engine().setCameraZoom(zoom, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
         }
     }
 
+    protected void cameraPan(int x, int y) {
+        engine().panCamera(x, y, 0, null);
+    }
+
+    protected void cameraPan(int x, int y, int duration) {
+        cameraPan(x, y, duration, "EASE_IN_OUT_CUBIC");
+    }
+
+    protected void cameraPan(int x, int y, int duration, String easing) {
+        try {
+            com.vnengine.util.EasingFunction e = com.vnengine.util.EasingFunction.forName(easing);
+            engine().panCamera(x, y, duration, e);
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Invalid easing: " + easing + ", using default.");
+            engine().panCamera(x, y, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
+        }
+    }
+
+    protected void cameraShake(int intensity, int duration) {
+        engine().shakeCamera(intensity, duration);
+    }
+
+    protected void cameraReset() {
+        engine().resetCamera();
+    }
+
     protected void windowSize(int width, int height) {
-        engine.setWindowSize(width, height);
+        engine().setWindowSize(width, height);
     }
 
     protected void windowTitle(String title) {
-        engine.setWindowTitle(title);
+        engine().setWindowTitle(title);
     }
 
     protected void windowFullscreen(boolean fullscreen) {
-        engine.setFullscreen(fullscreen);
+        engine().setFullscreen(fullscreen);
     }
 
     // Character Scaling
     protected void show(String characterName, String imageName, double scale) {
-        engine.showCharacter(characterName, imageName, -1, -1, scale);
+        engine().showCharacter(characterName, imageName, -1, -1, scale);
     }
 
     protected void show(String characterName, String imageName, int x, int y, double scale) {
-        engine.showCharacter(characterName, imageName, x, y, scale);
+        engine().showCharacter(characterName, imageName, x, y, scale);
     }
 
     protected void scale(String name, double factor) {
-        engine.setCharacterScale(name, factor);
+        engine().setCharacterScale(name, factor);
     }
 
     // Animated Entity Moves
@@ -148,11 +329,11 @@ public abstract class GameScript implements Runnable {
 
     protected void move(String name, int x, int y, int duration, String easing) {
         try {
-            com.vnengine.util.Easing e = com.vnengine.util.Easing.valueOf(easing.toUpperCase());
-            engine.slideCharacter(name, x, y, duration, e);
+            com.vnengine.util.EasingFunction e = com.vnengine.util.EasingFunction.forName(easing);
+            engine().slideCharacter(name, x, y, duration, e);
         } catch (IllegalArgumentException ex) {
             System.err.println("Invalid easing: " + easing + ", using default.");
-            engine.slideCharacter(name, x, y, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
+            engine().slideCharacter(name, x, y, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
         }
     }
 
@@ -162,11 +343,11 @@ public abstract class GameScript implements Runnable {
 
     protected void dialogSlide(int x, int y, int duration, String easing) {
         try {
-            com.vnengine.util.Easing e = com.vnengine.util.Easing.valueOf(easing.toUpperCase());
-            engine.slideDialog(x, y, duration, e);
+            com.vnengine.util.EasingFunction e = com.vnengine.util.EasingFunction.forName(easing);
+            engine().slideDialog(x, y, duration, e);
         } catch (IllegalArgumentException ex) {
             System.err.println("Invalid easing: " + easing + ", using default.");
-            engine.slideDialog(x, y, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
+            engine().slideDialog(x, y, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
         }
     }
 
@@ -176,11 +357,11 @@ public abstract class GameScript implements Runnable {
 
     protected void resizeWindow(int width, int height, int duration, String easing) {
         try {
-            com.vnengine.util.Easing e = com.vnengine.util.Easing.valueOf(easing.toUpperCase());
-            engine.resizeWindow(width, height, duration, e);
+            com.vnengine.util.EasingFunction e = com.vnengine.util.EasingFunction.forName(easing);
+            engine().resizeWindow(width, height, duration, e);
         } catch (IllegalArgumentException ex) {
             System.err.println("Invalid easing: " + easing + ", using default.");
-            engine.resizeWindow(width, height, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
+            engine().resizeWindow(width, height, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
         }
     }
 
@@ -190,11 +371,11 @@ public abstract class GameScript implements Runnable {
 
     protected void resizeWindowCentered(int width, int height, int duration, String easing) {
         try {
-            com.vnengine.util.Easing e = com.vnengine.util.Easing.valueOf(easing.toUpperCase());
-            engine.resizeWindow(width, height, duration, e, true);
+            com.vnengine.util.EasingFunction e = com.vnengine.util.EasingFunction.forName(easing);
+            engine().resizeWindow(width, height, duration, e, true);
         } catch (IllegalArgumentException ex) {
             System.err.println("Invalid easing: " + easing + ", using default.");
-            engine.resizeWindow(width, height, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC, true);
+            engine().resizeWindow(width, height, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC, true);
         }
     }
 
@@ -204,75 +385,188 @@ public abstract class GameScript implements Runnable {
 
     protected void scale(String name, double scale, int duration, String easing) {
         try {
-            com.vnengine.util.Easing e = com.vnengine.util.Easing.valueOf(easing.toUpperCase());
-            engine.scaleCharacter(name, scale, duration, e);
+            com.vnengine.util.EasingFunction e = com.vnengine.util.EasingFunction.forName(easing);
+            engine().scaleCharacter(name, scale, duration, e);
         } catch (IllegalArgumentException ex) {
             System.err.println("Invalid easing: " + easing + ", using default.");
-            engine.scaleCharacter(name, scale, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
+            engine().scaleCharacter(name, scale, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
         }
     }
 
-    private void sleep(int ms) {
+    // Animation Groups
+    /**
+     * Start every animation in {@code block} together. Call {@code await()} on
+     * the result to wait until all of them finished.
+     */
+    protected AnimationGroup parallel(Runnable block) {
+        return engine().parallel(block);
+    }
+
+    /**
+     * Play the animations of each step one step after another. Only
+     * animations wait for their turn; other commands in a step run at once.
+     */
+    protected AnimationGroup sequence(Runnable... steps) {
+        return engine().sequence(steps);
+    }
+
+    /**
+     * Animations started in {@code block} always play in full; clicking
+     * does not jump them to the end.
+     */
+    protected void uninterruptible(Runnable block) {
+        engine().uninterruptible(block);
+    }
+
+    // Stacking and Transparency
+    protected void zOrder(String name, int z) {
+        engine().setCharacterZ(name, z);
+    }
+
+    protected void alpha(String name, double alpha) {
+        engine().setCharacterAlpha(name, (float) alpha);
+    }
+
+    protected void fade(String name, double alpha, int duration) {
+        fade(name, alpha, duration, "EASE_IN_OUT_CUBIC");
+    }
+
+    protected void fade(String name, double alpha, int duration, String easing) {
         try {
-            Thread.sleep(ms);
-        } catch (Exception e) {
+            com.vnengine.util.EasingFunction e = com.vnengine.util.EasingFunction.forName(easing);
+            engine().fadeCharacter(name, (float) alpha, duration, e);
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Invalid easing: " + easing + ", using default.");
+            engine().fadeCharacter(name, (float) alpha, duration, com.vnengine.util.Easing.EASE_IN_OUT_CUBIC);
         }
     }
 
+    /**
+     * Pause the script for {@code ms} milliseconds (skipped while loading).
+     * Prefer awaiting an animation group when waiting for animations.
+     */
+    protected void pause(int ms) {
+        if (!engine().isSkipping()) {
+            sleep(ms);
+        }
+    }
+
+    private void sleep(int ms) {
+        engine().sleep(ms);
+    }
+
+    // --- Variables & Checkpoints ---
+
+    /**
+     * A story variable that is saved with the game, e.g.
+     * {@code var("affection").add(5)} or {@code if (var("met_bob").isTrue())}.
+     * Keep story state here rather than in fields of the script: fields are
+     * not saved, and after resuming from a checkpoint they are not rebuilt.
+     */
+    protected Variable var(String name) {
+        return engine().getVariables().var(name);
+    }
+
+    /**
+     * Mark a point the story can resume from. Loading a save made after
+     * this point jumps here through {@link #resumePoint(String)} instead of
+     * replaying everything before it.
+     */
+    protected void checkpoint(String id) {
+        engine().checkpoint(id);
+    }
+
+    /**
+     * Return the code that continues the story from checkpoint {@code id},
+     * e.g. {@code case "chapter2": return this::chapter2;}. The default
+     * resumes nowhere, so loads replay the script from the start.
+     */
+    @Override
+    public Runnable resumePoint(String id) {
+        return null;
+    }
+
+    // --- Tracks ---
+
+    /**
+     * Run {@code body} alongside the story until it returns, e.g.
+     * {@code track("clone", () -> { while (true) { ...; pause(800); } })}.
+     * A track can move characters, drive sub-windows, play sounds and
+     * pause, but cannot say lines or show menus. It stops by itself when a
+     * save is loaded; loop bodies should pause so they can be stopped.
+     */
+    protected void track(String name, Runnable body) {
+        engine().startTrack(name, body);
+    }
+
+    /**
+     * Run another script as a track, e.g. an ambient scene kept in its own class.
+     */
+    protected void track(String name, GameScript script) {
+        if (script.engine == null) {
+            script.setEngine(engine);
+        }
+        engine().startTrack(name, script);
+    }
+
+    protected void stopTrack(String name) {
+        engine().stopTrack(name);
+    }
+
     // Fake Error
     protected void fakeError(String title, String message) {
-        engine.showFakeError(title, message, -1, -1);
+        engine().showFakeError(title, message, -1, -1);
     }
 
     protected void fakeError(String title, String message, int x, int y) {
-        engine.showFakeError(title, message, x, y);
+        engine().showFakeError(title, message, x, y);
     }
 
     protected void clearFakeError() {
-        engine.clearFakeError();
+        engine().clearFakeError();
     }
 
     // --- Sub-Window Control ---
     protected void createSubWindow(String id, String title, int width, int height) {
-        engine.createSubWindow(id, title, width, height);
+        engine().createSubWindow(id, title, width, height);
     }
 
     protected void closeSubWindow(String id) {
-        engine.closeSubWindow(id);
+        engine().closeSubWindow(id);
     }
 
     protected void subWindowPos(String id, int x, int y) {
-        engine.setSubWindowPosition(id, x, y);
+        engine().setSubWindowPosition(id, x, y);
     }
 
     protected void subWindowBg(String id, String imagePath) {
-        engine.setSubWindowBackground(id, imagePath);
+        engine().setSubWindowBackground(id, imagePath);
     }
 
     protected void showInSubWindow(String id, String name, String image, int x, int y) {
-        engine.showCharacterInSubWindow(id, name, image, x, y);
+        engine().showCharacterInSubWindow(id, name, image, x, y);
     }
 
     protected void showInSubWindow(String id, String name, String image, int x, int y, double scale) {
-        engine.showCharacterInSubWindow(id, name, image, x, y, scale);
+        engine().showCharacterInSubWindow(id, name, image, x, y, scale);
     }
 
     protected void moveInSubWindow(String id, String name, int x, int y) {
-        engine.moveCharacterInSubWindow(id, name, x, y);
+        engine().moveCharacterInSubWindow(id, name, x, y);
     }
 
     protected void subWindowSay(String id, String name, String text) {
         // Since SubWindows don't halt the main script for input (they are parallel),
         // we just update the text.
-        engine.subWindowSay(id, name, text);
+        engine().subWindowSay(id, name, text);
     }
 
     protected void website(String url) {
-        engine.openWebsite(url);
+        engine().openWebsite(url);
     }
 
     protected void openWeb(String url) {
-        engine.openWebsite(url);
+        engine().openWebsite(url);
     }
 
     @Override
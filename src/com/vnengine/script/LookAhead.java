@@ -0,0 +1,124 @@
+package com.vnengine.script;
+
+import com.vnengine.core.Checkpoint;
+import com.vnengine.core.GameEngine;
+import com.vnengine.core.ScriptListener;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the assets a Java script is about to use by dry-running a fresh
+ * copy of it on an engine without a window, in the background. The copy
+ * starts at the last checkpoint the real run passed, as a load would, gives
+ * the same menu answers, skips ahead to where the real run is, and reports
+ * every asset it touches in the next few lines to {@link GameEngine#prefetch}.
+ *
+ * So a dry run only replays the lines since that checkpoint; a script that
+ * is not {@link com.vnengine.core.Resumable} there replays from the start.
+ * Scripts without a no-argument constructor are not looked ahead.
+ */
+final class LookAhead {
+    static final int LINES = 12; // How far past the current line to look
+    static final int BRANCH_LINES = 6; // How far into each menu option
+
+    // Older requests are dropped when the real script outruns the look-ahead
+    private static final ThreadPoolExecutor POOL = new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(8), r -> {
+                Thread t = new Thread(r, "look-ahead");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            }, new ThreadPoolExecutor.DiscardOldestPolicy());
+
+    // Thrown through the copy to stop it
+    private static final class Stop extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Stop() {
+            super(null, null, false, false);
+        }
+    }
+
+    private LookAhead() {
+    }
+
+    /**
+     * Prefetch the assets of the {@link #LINES} lines after the current one.
+     */
+    static void ahead(GameScript script, GameEngine engine) {
+        submit(script, engine, engine.getLastCheckpoint(), engine.getChoiceHistory(), engine.getCurrentStep(),
+                LINES);
+    }
+
+    /**
+     * Prefetch the first assets of every option of the menu about to show.
+     */
+    static void branches(GameScript script, GameEngine engine, int count) {
+        Checkpoint checkpoint = engine.getLastCheckpoint();
+        int[] answers = engine.getChoiceHistory();
+        for (int i = 0; i < count; i++) {
+            int[] branch = Arrays.copyOf(answers, answers.length + 1);
+            branch[answers.length] = i;
+            submit(script, engine, checkpoint, branch, 0, BRANCH_LINES);
+        }
+    }
+
+    private static void submit(GameScript script, GameEngine engine, Checkpoint checkpoint, int[] answers,
+            int fromStep, int lines) {
+        Constructor<? extends GameScript> constructor;
+        try {
+            constructor = script.getClass().getConstructor();
+        } catch (NoSuchMethodException e) {
+            return;
+        }
+        POOL.execute(() -> dryRun(constructor, engine, checkpoint, answers, fromStep, lines));
+    }
+
+    private static void dryRun(Constructor<? extends GameScript> constructor, GameEngine target,
+            Checkpoint checkpoint, int[] answers, int fromStep, int lines) {
+        GameEngine dry = new GameEngine(true);
+        int[] given = { 0 };
+        int[] shown = { 0 };
+        Set<String> seen = new HashSet<>();
+        dry.setChoiceSource(options -> {
+            if (given[0] < answers.length)
+                return answers[given[0]++];
+            throw new Stop(); // The next menu is looked ahead when it comes
+        });
+        dry.setScriptListener(new ScriptListener() {
+            // Past the answers the real run gave and at or after its current line
+            private boolean ahead() {
+                return given[0] == answers.length && dry.getCurrentStep() >= fromStep;
+            }
+
+            @Override
+            public void lineShown(String speaker, String text) {
+                if (ahead() && ++shown[0] >= lines)
+                    throw new Stop();
+            }
+
+            @Override
+            public void assetUsed(String kind, String name) {
+                if (ahead() && seen.add(kind + " " + name)) {
+                    target.prefetch(kind, name);
+                }
+            }
+        });
+        try {
+            GameScript copy = constructor.newInstance();
+            copy.setEngine(dry);
+            if (checkpoint != null && copy.resumePoint(checkpoint.id) != null) {
+                dry.resumeAt(checkpoint, answers); // Menus before the checkpoint are behind it
+                given[0] = Math.min(checkpoint.choiceCount, answers.length);
+            }
+            dry.runScript(copy);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Stopped, or the copy went another way; the real run is unaffected
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.vnengine.script;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles {@code .vns} script text into a {@link VnsProgram}. One
+ * statement per line:
+ *
+ * <pre>
+ * # Comment
+ * label start
+ * scene council
+ * music "Beautiful Day"
+ * show Sakura demo_girl_neutral -400 50 0.8
+ * move Sakura 100 50 1000 EASE_OUT_CUBIC
+ * Sakura: Hello there! You have {affection} points.
+ * > Narration.
+ * menu
+ * * Go left -> left
+ * * Go right -> right
+ * set affection 5
+ * add affection 1
+ * if affection >= 5 jump good_end
+ * jump start
+ * end
+ * </pre>
+ *
+ * Compilation is a single pass over the lines; jumps to labels further
+ * down are patched once the label is seen.
+ */
+public class VnsCompiler {
+    private final String name;
+    private int[] code = new int[1024];
+    private int size = 0;
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final Map<String, Integer> labels = new HashMap<>();
+    private final Map<String, List<int[]>> unresolved = new HashMap<>(); // Label -> (operand offset, line)
+    private int[] stepPcs = new int[256];
+    private int steps = 0;
+    private final List<String> errors = new ArrayList<>();
+    private int lineNumber;
+
+    private VnsCompiler(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @throws IllegalArgumentException listing every error in the script
+     */
+    public static VnsProgram compile(String name, Reader source) throws IOException {
+        VnsCompiler compiler = new VnsCompiler(name);
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            compiler.lineNumber++;
+            compiler.statement(line.trim());
+        }
+        return compiler.finish();
+    }
+
+    private VnsProgram finish() {
+        if (pendingMenu) {
+            endMenu();
+        }
+        emit(VnsProgram.END);
+        for (Map.Entry<String, List<int[]>> entry : unresolved.entrySet()) {
+            for (int[] use : entry.getValue()) {
+                errors.add(name + ":" + use[1] + ": unknown label '" + entry.getKey() + "'");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("\n", errors));
+        }
+        return new VnsProgram(name, Arrays.copyOf(code, size), strings.toArray(new String[0]),
+                new HashMap<>(labels), Arrays.copyOf(stepPcs, steps));
+    }
+
+    private void statement(String line) {
+        if (menuOption(line))
+            return;
+        if (line.isEmpty() || line.startsWith("#"))
+            return;
+
+        if (line.startsWith(">")) {
+            say(null, line.substring(1).trim());
+            return;
+        }
+        if (line.startsWith("*")) {
+            error("menu option outside of a menu");
+            return;
+        }
+
+        int space = 0;
+        while (space < line.length() && !Character.isWhitespace(line.charAt(space))) {
+            space++;
+        }
+        if (!KEYWORDS.contains(line.substring(0, space))) {
+            // "Name: text" (checked before tokenizing, so dialogue can contain quotes)
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                say(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+            } else {
+                error("unknown command '" + line.substring(0, space) + "'");
+            }
+            return;
+        }
+
+        List<String> args = tokenize(line);
+        if (args == null)
+            return;
+        try {
+            command(args.get(0), args);
+        } catch (NumberFormatException e) {
+            error("expected a number: " + e.getMessage());
+        }
+    }
+
+    private static final java.util.Set<String> KEYWORDS = new java.util.HashSet<>(Arrays.asList(
+            "label", "jump", "if", "menu", "scene", "music", "sound", "hide", "title", "stopmusic", "nvl", "adv",
+            "nvlclear", "end", "show", "move", "scale", "fade", "pause", "set", "add"));
+
+    private void command(String command, List<String> args) {
+        switch (command) {
+            case "label":
+                if (expect(args, 1)) {
+                    label(args.get(1));
+                }
+                return;
+            case "jump":
+                if (expect(args, 1)) {
+                    emit(VnsProgram.JUMP);
+                    emitTarget(args.get(1));
+                }
+                return;
+            case "if":
+                ifJump(args);
+                return;
+            case "menu":
+                if (expect(args, 0)) {
+                    pendingMenu = true;
+                    menuLine = lineNumber;
+                }
+                return;
+            case "scene":
+                simple(args, VnsProgram.SCENE);
+                return;
+            case "music":
+                simple(args, VnsProgram.MUSIC);
+                return;
+            case "sound":
+                simple(args, VnsProgram.SOUND);
+                return;
+            case "hide":
+                simple(args, VnsProgram.HIDE);
+                return;
+            case "title":
+                simple(args, VnsProgram.TITLE);
+                return;
+            case "stopmusic":
+                emit(VnsProgram.STOP_MUSIC);
+                return;
+            case "nvl":
+                emit(VnsProgram.NVL);
+                return;
+            case "adv":
+                emit(VnsProgram.ADV);
+                return;
+            case "nvlclear":
+                emit(VnsProgram.NVL_CLEAR);
+                return;
+            case "end":
+                emit(VnsProgram.END);
+                return;
+            case "show":
+                if (args.size() == 3) {
+                    emit(VnsProgram.SHOW, string(args.get(1)), string(args.get(2)));
+                } else if (args.size() == 5 || args.size() == 6) {
+                    float scale = args.size() == 6 ? Float.parseFloat(args.get(5)) : 1f;
+                    emit(VnsProgram.SHOW_AT, string(args.get(1)), string(args.get(2)),
+                            Integer.parseInt(args.get(3)), Integer.parseInt(args.get(4)),
+                            Float.floatToIntBits(scale));
+                } else {
+                    error("usage: show name sprite [x y [scale]]");
+                }
+                return;
+            case "move":
+                if (args.size() < 5 || args.size() > 6) {
+                    error("usage: move name x y duration [easing]");
+                    return;
+                }
+                emit(VnsProgram.MOVE, string(args.get(1)), Integer.parseInt(args.get(2)),
+                        Integer.parseInt(args.get(3)), Integer.parseInt(args.get(4)), easing(args, 5));
+                return;
+            case "scale":
+            case "fade":
+                if (args.size() < 4 || args.size() > 5) {
+                    error("usage: " + command + " name value duration [easing]");
+                    return;
+                }
+                emit(command.equals("scale") ? VnsProgram.SCALE : VnsProgram.FADE, string(args.get(1)),
+                        Float.floatToIntBits(Float.parseFloat(args.get(2))), Integer.parseInt(args.get(3)),
+                        easing(args, 4));
+                return;
+            case "pause":
+                if (expect(args, 1)) {
+                    emit(VnsProgram.PAUSE, Integer.parseInt(args.get(1)));
+                }
+                return;
+            case "set":
+                if (expect(args, 2)) {
+                    set(args.get(1), args.get(2), quoted);
+                }
+                return;
+            case "add":
+                if (expect(args, 2)) {
+                    emit(VnsProgram.ADD, string(args.get(1)), Integer.parseInt(args.get(2)));
+                }
+                return;
+            default:
+                error("unknown command '" + command + "'");
+        }
+    }
+
+    // --- Menus ---
+
+    private boolean pendingMenu = false;
+    private final List<String[]> menuOptions = new ArrayList<>();
+    private int menuLine;
+
+    // Collect "* text -> label" lines; the menu is emitted at the first other line
+    private boolean menuOption(String line) {
+        if (!pendingMenu)
+            return false;
+        if (line.startsWith("*")) {
+            int arrow = line.lastIndexOf("->");
+            if (arrow < 0) {
+                error("usage: * option text -> label");
+            } else {
+                menuOptions.add(new String[] { line.substring(1, arrow).trim(), line.substring(arrow + 2).trim(),
+                        String.valueOf(lineNumber) });
+            }
+            return true;
+        }
+        if (line.isEmpty() || line.startsWith("#"))
+            return true;
+        endMenu();
+        return false;
+    }
+
+    private void endMenu() {
+        pendingMenu = false;
+        if (menuOptions.isEmpty()) {
+            errors.add(name + ":" + menuLine + ": menu has no options");
+            return;
+        }
+        markStep();
+        emit(VnsProgram.MENU);
+        emit(steps - 1);
+        emit(menuOptions.size());
+        int saved = lineNumber;
+        for (String[] option : menuOptions) {
+            lineNumber = Integer.parseInt(option[2]);
+            emit(string(option[0]));
+            emitTarget(option[1]);
+        }
+        lineNumber = saved;
+        menuOptions.clear();
+    }
+
+    // --- Statements ---
+
+    private void say(String speaker, String text) {
+        if (text.isEmpty()) {
+            error("empty line of dialogue");
+            return;
+        }
+        markStep();
+        emit(VnsProgram.SAY, speaker != null ? string(speaker) : -1, string(text), steps - 1);
+    }
+
+    private void label(String label) {
+        if (labels.containsKey(label)) {
+            error("label '" + label + "' is defined twice");
+            return;
+        }
+        labels.put(label, size);
+        List<int[]> uses = unresolved.remove(label);
+        if (uses != null) {
+            for (int[] use : uses) {
+                code[use[0]] = size;
+            }
+        }
+    }
+
+    private void ifJump(List<String> args) {
+        // if var jump label | if var op value jump label
+        if (args.size() == 4 && args.get(2).equals("jump")) {
+            emit(VnsProgram.IF, string(args.get(1)), VnsProgram.IS_TRUE, 0);
+            emitTarget(args.get(3));
+            return;
+        }
+        if (args.size() != 6 || !args.get(4).equals("jump")) {
+            error("usage: if variable [op value] jump label");
+            return;
+        }
+        int comparison;
+        switch (args.get(2)) {
+            case "==":
+                comparison = VnsProgram.EQ;
+                break;
+            case "!=":
+                comparison = VnsProgram.NE;
+                break;
+            case "<":
+                comparison = VnsProgram.LT;
+                break;
+            case "<=":
+                comparison = VnsProgram.LE;
+                break;
+            case ">":
+                comparison = VnsProgram.GT;
+                break;
+            case ">=":
+                comparison = VnsProgram.GE;
+                break;
+            default:
+                error("unknown comparison '" + args.get(2) + "'");
+                return;
+        }
+        emit(VnsProgram.IF, string(args.get(1)), comparison, Integer.parseInt(args.get(3)));
+        emitTarget(args.get(5));
+    }
+
+    private void set(String variable, String value, boolean isText) {
+        if (isText) {
+            emit(VnsProgram.SET_STRING, string(variable), string(value));
+        } else if (value.equals("true") || value.equals("false")) {
+            emit(VnsProgram.SET_BOOL, string(variable), value.equals("true") ? 1 : 0);
+        } else {
+            emit(VnsProgram.SET_INT, string(variable), Integer.parseInt(value));
+        }
+    }
+
+    private void simple(List<String> args, int opcode) {
+        if (expect(args, 1)) {
+            emit(opcode, string(args.get(1)));
+        }
+    }
+
+    private int easing(List<String> args, int index) {
+        return args.size() > index ? string(args.get(index)) : -1;
+    }
+
+    private boolean expect(List<String> args, int count) {
+        if (args.size() != count + 1) {
+            error("'" + args.get(0) + "' takes " + count + (count == 1 ? " argument" : " arguments"));
+            return false;
+        }
+        return true;
+    }
+
+    // --- Emitting ---
+
+    private void markStep() {
+        if (steps == stepPcs.length) {
+            stepPcs = Arrays.copyOf(stepPcs, steps * 2);
+        }
+        stepPcs[steps++] = size;
+    }
+
+    private void emit(int... words) {
+        if (size + words.length > code.length) {
+            code = Arrays.copyOf(code, Math.max(code.length * 2, size + words.length));
+        }
+        for (int word : words) {
+            code[size++] = word;
+        }
+    }
+
+    private void emitTarget(String label) {
+        Integer pc = labels.get(label);
+        if (pc != null) {
+            emit(pc);
+            return;
+        }
+        unresolved.computeIfAbsent(label, l -> new ArrayList<>()).add(new int[] { size, lineNumber });
+        emit(-1);
+    }
+
+    private int string(String value) {
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.add(value);
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+
+    // --- Tokens ---
+
+    private boolean quoted; // Whether the last token was in quotes
+
+    // Split on spaces, keeping "quoted text" together; null on error
+    private List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (c == '"') {
+                int close = line.indexOf('"', i + 1);
+                if (close < 0) {
+                    error("missing closing quote");
+                    return null;
+                }
+                tokens.add(line.substring(i + 1, close));
+                quoted = true;
+                i = close + 1;
+            } else {
+                int end = i;
+                while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+                    end++;
+                }
+                tokens.add(line.substring(i, end));
+                quoted = false;
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private void error(String message) {
+        errors.add(name + ":" + lineNumber + ": " + message);
+    }
+}
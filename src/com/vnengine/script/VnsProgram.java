@@ -0,0 +1,233 @@
+package com.vnengine.script;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A compiled {@code .vns} script: one flat array of instructions, a pool of
+ * the strings they refer to, and lookup tables for labels and lines.
+ *
+ * Each instruction is an opcode followed by its operands. Text, character
+ * and asset names are indices into {@link #strings}; jump targets are
+ * already resolved to instruction offsets. Every {@code say} and
+ * {@code menu} has a line number ("step", counted in source order), and
+ * {@link #pcOfStep(int)} finds its instruction in O(1).
+ */
+public final class VnsProgram {
+    // Opcodes; operand counts are in length()
+    static final int END = 0;
+    static final int SAY = 1; // speaker (-1 for narration), text, step
+    static final int MENU = 2; // step, count, then count x (text, target)
+    static final int JUMP = 3; // target
+    static final int IF = 4; // variable, comparison, value, target
+    static final int SCENE = 5; // background
+    static final int MUSIC = 6; // track
+    static final int STOP_MUSIC = 7;
+    static final int SOUND = 8; // sound
+    static final int SHOW = 9; // name, sprite
+    static final int SHOW_AT = 10; // name, sprite, x, y, scale bits
+    static final int HIDE = 11; // name
+    static final int MOVE = 12; // name, x, y, duration, easing (-1 for default)
+    static final int SCALE = 13; // name, scale bits, duration, easing
+    static final int FADE = 14; // name, alpha bits, duration, easing
+    static final int PAUSE = 15; // ms
+    static final int SET_INT = 16; // variable, value
+    static final int SET_BOOL = 17; // variable, 0 or 1
+    static final int SET_STRING = 18; // variable, text
+    static final int ADD = 19; // variable, amount
+    static final int NVL = 20;
+    static final int ADV = 21;
+    static final int NVL_CLEAR = 22;
+    static final int TITLE = 23; // title
+
+    // IF comparisons
+    static final int IS_TRUE = 0;
+    static final int EQ = 1;
+    static final int NE = 2;
+    static final int LT = 3;
+    static final int LE = 4;
+    static final int GT = 5;
+    static final int GE = 6;
+
+    final String name;
+    final int[] code;
+    final String[] strings;
+    private final Map<String, Integer> labels;
+    private final int[] stepPcs;
+
+    VnsProgram(String name, int[] code, String[] strings, Map<String, Integer> labels, int[] stepPcs) {
+        this.name = name;
+        this.code = code;
+        this.strings = strings;
+        this.labels = Collections.unmodifiableMap(labels);
+        this.stepPcs = stepPcs;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of lines (says and menus)
+     */
+    public int getStepCount() {
+        return stepPcs.length;
+    }
+
+    /**
+     * @return the instruction of line {@code step}, or -1 if there is none
+     */
+    public int pcOfStep(int step) {
+        return step >= 0 && step < stepPcs.length ? stepPcs[step] : -1;
+    }
+
+    /**
+     * @return the instruction after {@code label}, or -1 if there is none
+     */
+    public int pcOfLabel(String label) {
+        Integer pc = labels.get(label);
+        return pc != null ? pc : -1;
+    }
+
+    public Map<String, Integer> getLabels() {
+        return labels;
+    }
+
+    /**
+     * @return the line {@code step} as it reads in the script, e.g.
+     *         "Sakura: Hello!" or "menu: Yes / No", or null if there is none
+     */
+    public String describeStep(int step) {
+        int pc = pcOfStep(step);
+        if (pc < 0)
+            return null;
+        if (code[pc] == SAY) {
+            String text = strings[code[pc + 2]];
+            return code[pc + 1] < 0 ? "> " + text : strings[code[pc + 1]] + ": " + text;
+        }
+        StringBuilder sb = new StringBuilder("menu: ");
+        for (int i = 0; i < code[pc + 2]; i++) {
+            if (i > 0)
+                sb.append(" / ");
+            sb.append(strings[code[pc + 3 + 2 * i]]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the last label at or before instruction {@code pc}, or null
+     */
+    public String labelBefore(int pc) {
+        String best = null;
+        int bestPc = -1;
+        for (Map.Entry<String, Integer> entry : labels.entrySet()) {
+            int at = entry.getValue();
+            if (at <= pc && at > bestPc) {
+                best = entry.getKey();
+                bestPc = at;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the offset of the instruction after the one at {@code pc}
+     */
+    int next(int pc) {
+        switch (code[pc]) {
+            case END:
+            case STOP_MUSIC:
+            case NVL:
+            case ADV:
+            case NVL_CLEAR:
+                return pc + 1;
+            case JUMP:
+            case SCENE:
+            case MUSIC:
+            case SOUND:
+            case HIDE:
+            case PAUSE:
+            case TITLE:
+                return pc + 2;
+            case SHOW:
+            case SET_INT:
+            case SET_BOOL:
+            case SET_STRING:
+            case ADD:
+                return pc + 3;
+            case SAY:
+                return pc + 4;
+            case IF:
+            case SCALE:
+            case FADE:
+                return pc + 5;
+            case SHOW_AT:
+            case MOVE:
+                return pc + 6;
+            case MENU:
+                return pc + 3 + 2 * code[pc + 2];
+            default:
+                throw new IllegalStateException("Bad opcode " + code[pc] + " at " + pc);
+        }
+    }
+
+    /** Receives the assets {@link #scanAssets} finds. */
+    public interface AssetVisitor {
+        /**
+         * @param kind "background", "character", "music" or "sound"
+         */
+        void visit(String kind, String name);
+    }
+
+    /**
+     * Report the assets the next {@code limit} instructions from {@code pc}
+     * will use, following jumps, so they can be loaded before they are
+     * needed. Stops at a menu or the end; the instructions after each menu
+     * option can be scanned from {@link #menuTargets(int)}.
+     *
+     * @return the offset the scan stopped at
+     */
+    public int scanAssets(int pc, int limit, AssetVisitor visitor) {
+        for (int n = 0; n < limit && pc >= 0 && pc < code.length; n++) {
+            switch (code[pc]) {
+                case END:
+                case MENU:
+                    return pc;
+                case JUMP:
+                    pc = code[pc + 1];
+                    continue;
+                case SCENE:
+                    visitor.visit("background", strings[code[pc + 1]]);
+                    break;
+                case MUSIC:
+                    visitor.visit("music", strings[code[pc + 1]]);
+                    break;
+                case SOUND:
+                    visitor.visit("sound", strings[code[pc + 1]]);
+                    break;
+                case SHOW:
+                case SHOW_AT:
+                    visitor.visit("character", strings[code[pc + 2]]);
+                    break;
+                default:
+                    break;
+            }
+            pc = next(pc);
+        }
+        return pc;
+    }
+
+    /**
+     * @return where each option of the menu at {@code pc} continues, or an
+     *         empty array if {@code pc} is not a menu
+     */
+    public int[] menuTargets(int pc) {
+        if (pc < 0 || pc >= code.length || code[pc] != MENU)
+            return new int[0];
+        int[] targets = new int[code[pc + 2]];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = code[pc + 4 + 2 * i];
+        }
+        return targets;
+    }
+}
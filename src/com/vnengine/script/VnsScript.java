@@ -0,0 +1,264 @@
+package com.vnengine.script;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Runs a {@code .vns} script from resources/scripts (see
+ * {@link VnsCompiler} for the format) on a small interpreter, instead of a
+ * hand-written {@link GameScript} subclass:
+ *
+ * <pre>
+ * GameScript script = new VnsScript("chapter1");
+ * </pre>
+ *
+ * All state lives in the story variables and the current instruction, so
+ * every line is a checkpoint: a load jumps straight to the saved line
+ * through the program's line index instead of replaying the story.
+ *
+ * Assets are prefetched from the program itself instead of a dry run: the
+ * instructions ahead are scanned whenever execution reaches the point the
+ * last scan stopped at, and at a menu the start of every option is.
+ */
+public class VnsScript extends GameScript {
+    private static final String SCRIPT_DIR = "resources/scripts/";
+    private static final String CHECKPOINT_PREFIX = "vns:";
+    private static final int SCAN_AHEAD = 64; // Instructions per look-ahead scan
+    private static final int SCAN_BRANCH = 24; // Instructions into each menu option
+
+    private final VnsProgram program;
+    private int scannedTo = -1; // Where the last look-ahead scan stopped
+
+    public VnsScript(String name) {
+        this(load(name));
+    }
+
+    public VnsScript(VnsProgram program) {
+        this.program = program;
+    }
+
+    /**
+     * Compile resources/scripts/{@code name}.vns. Errors are printed and
+     * give an empty program.
+     */
+    public static VnsProgram load(String name) {
+        File file = new File(SCRIPT_DIR + name + ".vns");
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return VnsCompiler.compile(name, reader);
+        } catch (IOException e) {
+            System.err.println("Could not read script " + file + ": " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Errors in script " + file + ":\n" + e.getMessage());
+        }
+        try {
+            return VnsCompiler.compile(name, new StringReader(""));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Not thrown for a string
+        }
+    }
+
+    public VnsProgram getProgram() {
+        return program;
+    }
+
+    @Override
+    public void run() {
+        execute(0);
+    }
+
+    @Override
+    public Runnable resumePoint(String id) {
+        if (!id.startsWith(CHECKPOINT_PREFIX))
+            return null;
+        int pc;
+        try {
+            pc = program.pcOfStep(Integer.parseInt(id.substring(CHECKPOINT_PREFIX.length())));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return pc >= 0 ? () -> execute(pc) : null;
+    }
+
+    // The program is scanned instead of dry-run
+    @Override
+    protected void prefetchAhead() {
+    }
+
+    @Override
+    protected void prefetchBranches(int count) {
+    }
+
+    private boolean prefetching() {
+        return engine.isLookAhead() && !engine.isSkipping() && !engine.isFastForwarding();
+    }
+
+    private void execute(int pc) {
+        int[] code = program.code;
+        String[] strings = program.strings;
+        scannedTo = -1;
+        while (pc >= 0 && pc < code.length) {
+            if ((scannedTo < 0 || pc == scannedTo) && prefetching()) {
+                scannedTo = program.scanAssets(pc, SCAN_AHEAD, engine::prefetch);
+            }
+            int next = program.next(pc);
+            switch (code[pc]) {
+                case VnsProgram.END:
+                    return;
+                case VnsProgram.SAY: {
+                    checkpoint(CHECKPOINT_PREFIX + code[pc + 3]);
+                    String text = interpolate(strings[code[pc + 2]]);
+                    if (code[pc + 1] < 0) {
+                        narrator(text);
+                    } else {
+                        say(strings[code[pc + 1]], text);
+                    }
+                    break;
+                }
+                case VnsProgram.MENU: {
+                    checkpoint(CHECKPOINT_PREFIX + code[pc + 1]);
+                    String[] options = new String[code[pc + 2]];
+                    for (int i = 0; i < options.length; i++) {
+                        options[i] = interpolate(strings[code[pc + 3 + 2 * i]]);
+                    }
+                    if (prefetching()) {
+                        for (int target : program.menuTargets(pc)) {
+                            program.scanAssets(target, SCAN_BRANCH, engine::prefetch);
+                        }
+                    }
+                    int choice = menu(options);
+                    scannedTo = -1; // Scan on from the chosen option
+                    next = code[pc + 4 + 2 * Math.max(0, Math.min(choice, options.length - 1))];
+                    break;
+                }
+                case VnsProgram.JUMP:
+                    next = code[pc + 1];
+                    break;
+                case VnsProgram.IF:
+                    if (test(strings[code[pc + 1]], code[pc + 2], code[pc + 3])) {
+                        next = code[pc + 4];
+                        scannedTo = -1; // The scan assumed the jump is not taken
+                    }
+                    break;
+                case VnsProgram.SCENE:
+                    scene(strings[code[pc + 1]]);
+                    break;
+                case VnsProgram.MUSIC:
+                    playMusic(strings[code[pc + 1]]);
+                    break;
+                case VnsProgram.STOP_MUSIC:
+                    stopMusic();
+                    break;
+                case VnsProgram.SOUND:
+                    playSound(strings[code[pc + 1]]);
+                    break;
+                case VnsProgram.SHOW:
+                    show(strings[code[pc + 1]], strings[code[pc + 2]]);
+                    break;
+                case VnsProgram.SHOW_AT:
+                    show(strings[code[pc + 1]], strings[code[pc + 2]], code[pc + 3], code[pc + 4],
+                            Float.intBitsToFloat(code[pc + 5]));
+                    break;
+                case VnsProgram.HIDE:
+                    hide(strings[code[pc + 1]]);
+                    break;
+                case VnsProgram.MOVE:
+                    if (code[pc + 5] < 0) {
+                        move(strings[code[pc + 1]], code[pc + 2], code[pc + 3], code[pc + 4]);
+                    } else {
+                        move(strings[code[pc + 1]], code[pc + 2], code[pc + 3], code[pc + 4], strings[code[pc + 5]]);
+                    }
+                    break;
+                case VnsProgram.SCALE:
+                    if (code[pc + 4] < 0) {
+                        scale(strings[code[pc + 1]], Float.intBitsToFloat(code[pc + 2]), code[pc + 3]);
+                    } else {
+                        scale(strings[code[pc + 1]], Float.intBitsToFloat(code[pc + 2]), code[pc + 3],
+                                strings[code[pc + 4]]);
+                    }
+                    break;
+                case VnsProgram.FADE:
+                    if (code[pc + 4] < 0) {
+                        fade(strings[code[pc + 1]], Float.intBitsToFloat(code[pc + 2]), code[pc + 3]);
+                    } else {
+                        fade(strings[code[pc + 1]], Float.intBitsToFloat(code[pc + 2]), code[pc + 3],
+                                strings[code[pc + 4]]);
+                    }
+                    break;
+                case VnsProgram.PAUSE:
+                    pause(code[pc + 1]);
+                    break;
+                case VnsProgram.SET_INT:
+                    var(strings[code[pc + 1]]).set(code[pc + 2]);
+                    break;
+                case VnsProgram.SET_BOOL:
+                    var(strings[code[pc + 1]]).set(code[pc + 2] != 0);
+                    break;
+                case VnsProgram.SET_STRING:
+                    var(strings[code[pc + 1]]).set(strings[code[pc + 2]]);
+                    break;
+                case VnsProgram.ADD:
+                    var(strings[code[pc + 1]]).add(code[pc + 2]);
+                    break;
+                case VnsProgram.NVL:
+                    nvl();
+                    break;
+                case VnsProgram.ADV:
+                    adv();
+                    break;
+                case VnsProgram.NVL_CLEAR:
+                    nvlClear();
+                    break;
+                case VnsProgram.TITLE:
+                    windowTitle(strings[code[pc + 1]]);
+                    break;
+                default:
+                    throw new IllegalStateException("Bad opcode " + code[pc] + " at " + pc);
+            }
+            pc = next;
+        }
+    }
+
+    private boolean test(String variable, int comparison, int value) {
+        if (comparison == VnsProgram.IS_TRUE)
+            return var(variable).isTrue();
+        int current = var(variable).getInt();
+        switch (comparison) {
+            case VnsProgram.EQ:
+                return current == value;
+            case VnsProgram.NE:
+                return current != value;
+            case VnsProgram.LT:
+                return current < value;
+            case VnsProgram.LE:
+                return current <= value;
+            case VnsProgram.GT:
+                return current > value;
+            default:
+                return current >= value;
+        }
+    }
+
+    // Replace {name} with the variable's value
+    private String interpolate(String text) {
+        int open = text.indexOf('{');
+        if (open < 0)
+            return text;
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        int from = 0;
+        while (open >= 0) {
+            int close = text.indexOf('}', open);
+            if (close < 0)
+                break;
+            sb.append(text, from, open);
+            String value = var(text.substring(open + 1, close)).getString();
+            sb.append(value != null ? value : "");
+            from = close + 1;
+            open = text.indexOf('{', from);
+        }
+        return sb.append(text, from, text.length()).toString();
+    }
+}
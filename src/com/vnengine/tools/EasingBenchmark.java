@@ -0,0 +1,74 @@
+package com.vnengine.tools;
+
+import com.vnengine.util.CubicBezier;
+import com.vnengine.util.Easing;
+import com.vnengine.util.EasingFunction;
+
+/**
+ * Rough timing of the easing curves: the direct formula against the lookup
+ * table, for every built-in curve and a custom cubic-bezier. Run with
+ * {@code java -cp bin com.vnengine.tools.EasingBenchmark [iterations]}.
+ */
+public class EasingBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        float sink = 0f; // Printed at the end so the JIT can't drop the work
+
+        System.out.printf("%-22s %12s %12s %12s%n", "Curve", "formula", "table", "max error");
+        for (Easing easing : Easing.values()) {
+            EasingFunction formula = easing::evaluate;
+            sink += run(formula, iterations / 4); // Warm up both paths
+            sink += run(easing, iterations / 4);
+
+            long formulaNanos = Long.MAX_VALUE;
+            long tableNanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                sink += run(formula, iterations);
+                formulaNanos = Math.min(formulaNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                sink += run(easing, iterations);
+                tableNanos = Math.min(tableNanos, System.nanoTime() - start);
+            }
+
+            float maxError = 0f;
+            for (int i = 0; i <= 100_000; i++) {
+                float t = i / 100_000f;
+                maxError = Math.max(maxError, Math.abs(easing.apply(t) - easing.evaluate(t)));
+            }
+            System.out.printf("%-22s %9.2f ns %9.2f ns %12.2e%n", easing,
+                    (double) formulaNanos / iterations, (double) tableNanos / iterations, maxError);
+        }
+
+        long start = System.nanoTime();
+        CubicBezier bezier = new CubicBezier(0.68f, -0.55f, 0.27f, 1.55f);
+        long solveNanos = System.nanoTime() - start;
+        sink += run(bezier, iterations / 4);
+        long bezierNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            start = System.nanoTime();
+            sink += run(bezier, iterations);
+            bezierNanos = Math.min(bezierNanos, System.nanoTime() - start);
+        }
+        System.out.printf("%-22s %12s %9.2f ns   (solved in %.2f ms)%n", "cubic-bezier", "-",
+                (double) bezierNanos / iterations, solveNanos / 1e6);
+
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private static float run(EasingFunction easing, int iterations) {
+        float sum = 0f;
+        float step = 1f / 9973; // Walks [0, 1) in an order the branch predictor can't memorize
+        float t = 0f;
+        for (int i = 0; i < iterations; i++) {
+            sum += easing.apply(t);
+            t += step * 37;
+            if (t >= 1f)
+                t -= 1f;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,398 @@
+package com.vnengine.tools;
+
+import com.vnengine.core.Checkpoint;
+import com.vnengine.core.GameEngine;
+import com.vnengine.core.ScriptListener;
+import com.vnengine.script.GameScript;
+import com.vnengine.script.VnsProgram;
+import com.vnengine.script.VnsScript;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Plays every route through a script on engines without a window and
+ * reports the endings, the lines and assets of each route, and the branches
+ * it could not get to.
+ *
+ * <pre>
+ * java com.vnengine.tools.RouteExplorer com.vnengine.game.MyGame
+ * java com.vnengine.tools.RouteExplorer --vns demo --max-choices 20
+ * </pre>
+ *
+ * A route is the list of answers it gives to menus. Each route runs on its
+ * own engine in a ForkJoinPool; at a menu it has not seen before it takes
+ * the first option itself and forks one new route per other option, which
+ * replays the same answers up to that menu and then picks its own.
+ *
+ * Routes that reach a menu in a state another route already reached (same
+ * checkpoint, same number of lines past it, same story variables) stop
+ * there, since everything after it has been explored once already. Scripts
+ * that keep story state in Java fields or locals instead of
+ * {@code var(...)} can look identical when they are not; run those with
+ * {@code --no-merge}.
+ */
+public class RouteExplorer {
+    private static final String VNS_CHECKPOINT = "vns:";
+
+    enum Outcome {
+        ENDED, MERGED, CUT_OFF, ERROR
+    }
+
+    // Thrown through the script to stop a route early
+    private static class StopRoute extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final Outcome outcome;
+
+        StopRoute(Outcome outcome, String message) {
+            super(message, null, false, false);
+            this.outcome = outcome;
+        }
+    }
+
+    static class Route {
+        final List<Integer> choices = new ArrayList<>();
+        final List<String> path = new ArrayList<>(); // Text of each answer
+        final Set<String> assets = new TreeSet<>();
+        int lines = 0;
+        String lastLine;
+        Outcome outcome;
+        String detail;
+
+        // Answers in order, with repeats folded, e.g. "Again (x3) > Stop"
+        String describePath() {
+            if (path.isEmpty())
+                return "(no choices)";
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < path.size();) {
+                int run = 1;
+                while (i + run < path.size() && path.get(i + run).equals(path.get(i))) {
+                    run++;
+                }
+                if (sb.length() > 0)
+                    sb.append(" > ");
+                sb.append(path.get(i));
+                if (run > 1)
+                    sb.append(" (x").append(run).append(')');
+                i += run;
+            }
+            return sb.toString();
+        }
+
+        int compareTo(Route other) {
+            for (int i = 0; i < Math.min(choices.size(), other.choices.size()); i++) {
+                int c = Integer.compare(choices.get(i), other.choices.get(i));
+                if (c != 0)
+                    return c;
+            }
+            return Integer.compare(choices.size(), other.choices.size());
+        }
+    }
+
+    private final Supplier<GameScript> scripts;
+    private final VnsProgram program; // Null for Java scripts
+    private int maxChoices = 32;
+    private int maxLines = 20_000;
+    private boolean merge = true;
+
+    private final Map<String, String> states = new ConcurrentHashMap<>(); // State -> path that got there first
+    private final Set<String> checkpointsSeen = ConcurrentHashMap.newKeySet();
+    private final Queue<Route> routes = new ConcurrentLinkedQueue<>();
+
+    public RouteExplorer(Supplier<GameScript> scripts) {
+        this(scripts, null);
+    }
+
+    public RouteExplorer(VnsProgram program) {
+        this(() -> new VnsScript(program), program);
+    }
+
+    private RouteExplorer(Supplier<GameScript> scripts, VnsProgram program) {
+        this.scripts = scripts;
+        this.program = program;
+    }
+
+    /**
+     * Routes are cut off after this many answers.
+     */
+    public void setMaxChoices(int maxChoices) {
+        this.maxChoices = maxChoices;
+    }
+
+    /**
+     * Routes are cut off after this many lines, e.g. in a loop without menus.
+     */
+    public void setMaxLines(int maxLines) {
+        this.maxLines = maxLines;
+    }
+
+    public void setMerge(boolean merge) {
+        this.merge = merge;
+    }
+
+    /**
+     * Explore every route on {@code pool}.
+     *
+     * @return the routes, sorted by their answers
+     */
+    public List<Route> explore(ForkJoinPool pool) {
+        states.clear();
+        checkpointsSeen.clear();
+        routes.clear();
+        pool.invoke(new Explore(new int[0]));
+        List<Route> sorted = new ArrayList<>(routes);
+        sorted.sort(Route::compareTo);
+        return sorted;
+    }
+
+    private class Explore extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] answers; // Given to the first menus before this route branches off
+
+        Explore(int[] answers) {
+            this.answers = answers;
+        }
+
+        @Override
+        protected void compute() {
+            Route route = new Route();
+            List<Explore> forks = new ArrayList<>();
+            GameEngine engine = new GameEngine(true);
+            engine.setScriptListener(new ScriptListener() {
+                @Override
+                public void lineShown(String speaker, String text) {
+                    if (++route.lines > maxLines)
+                        throw new StopRoute(Outcome.CUT_OFF, "more than " + maxLines + " lines");
+                    route.lastLine = speaker != null ? speaker + ": " + text : text;
+                }
+
+                @Override
+                public void assetUsed(String kind, String name) {
+                    route.assets.add(kind + " " + name);
+                }
+
+                @Override
+                public void checkpointReached(String id) {
+                    checkpointsSeen.add(id);
+                }
+            });
+            engine.setChoiceSource(options -> {
+                int n = route.choices.size();
+                int answer;
+                if (n < answers.length) {
+                    answer = answers[n]; // Still on the way to where this route branches off
+                } else {
+                    if (n >= maxChoices)
+                        throw new StopRoute(Outcome.CUT_OFF, "more than " + maxChoices + " choices");
+                    if (merge) {
+                        String first = states.putIfAbsent(stateOf(engine, options), route.describePath());
+                        if (first != null)
+                            throw new StopRoute(Outcome.MERGED, "same state as " + first);
+                    }
+                    for (int i = 1; i < options.length; i++) {
+                        int[] branch = Arrays.copyOf(answers, n + 1);
+                        for (int j = answers.length; j < n; j++) {
+                            branch[j] = route.choices.get(j);
+                        }
+                        branch[n] = i;
+                        Explore fork = new Explore(branch);
+                        fork.fork();
+                        forks.add(fork);
+                    }
+                    answer = 0;
+                }
+                answer = Math.max(0, Math.min(answer, options.length - 1));
+                route.choices.add(answer);
+                route.path.add(options[answer]);
+                return answer;
+            });
+
+            try {
+                GameScript script = scripts.get();
+                script.setEngine(engine);
+                engine.runScript(script);
+                route.outcome = Outcome.ENDED;
+            } catch (StopRoute e) {
+                route.outcome = e.outcome;
+                route.detail = e.getMessage();
+            } catch (RuntimeException e) {
+                route.outcome = Outcome.ERROR;
+                route.detail = e.toString();
+            }
+            routes.add(route);
+
+            for (Explore fork : forks) {
+                fork.join();
+            }
+        }
+    }
+
+    // Everything that decides what happens after a menu, as far as the engine can see
+    private static String stateOf(GameEngine engine, String[] options) {
+        Checkpoint checkpoint = engine.getLastCheckpoint();
+        StringBuilder sb = new StringBuilder();
+        if (checkpoint != null) {
+            sb.append(checkpoint.id).append('+').append(engine.getCurrentStep() - checkpoint.step);
+        } else {
+            sb.append(engine.getCurrentStep());
+        }
+        sb.append(' ').append(engine.getVariables());
+        for (String option : options) {
+            sb.append('\n').append(option);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the lines of the .vns program no route showed, by step
+     */
+    public List<Integer> unreachableSteps() {
+        List<Integer> steps = new ArrayList<>();
+        if (program != null) {
+            for (int step = 0; step < program.getStepCount(); step++) {
+                if (!checkpointsSeen.contains(VNS_CHECKPOINT + step)) {
+                    steps.add(step);
+                }
+            }
+        }
+        return steps;
+    }
+
+    public void printReport(List<Route> found, long elapsedMs, int threads) {
+        int[] counts = new int[Outcome.values().length];
+        for (Route route : found) {
+            counts[route.outcome.ordinal()]++;
+        }
+        System.out.println("Explored " + found.size() + " routes in " + elapsedMs + " ms on " + threads
+                + " threads: " + counts[Outcome.ENDED.ordinal()] + " ended, "
+                + counts[Outcome.MERGED.ordinal()] + " merged, "
+                + counts[Outcome.CUT_OFF.ordinal()] + " cut off, "
+                + counts[Outcome.ERROR.ordinal()] + " failed");
+
+        // Endings, by the last line shown
+        Map<String, List<Route>> endings = new TreeMap<>();
+        for (Route route : found) {
+            if (route.outcome == Outcome.ENDED) {
+                endings.computeIfAbsent(String.valueOf(route.lastLine), k -> new ArrayList<>()).add(route);
+            }
+        }
+        System.out.println();
+        System.out.println("=== Endings (" + endings.size() + ") ===");
+        for (Map.Entry<String, List<Route>> entry : endings.entrySet()) {
+            List<Route> ending = entry.getValue();
+            System.out.println("  \"" + entry.getKey() + "\" - " + ending.size() + " route(s), e.g. "
+                    + ending.get(0).describePath());
+        }
+
+        System.out.println();
+        System.out.println("=== Routes ===");
+        for (Route route : found) {
+            System.out.println("  " + route.describePath());
+            System.out.println("    " + route.lines + " lines, " + route.outcome.name().toLowerCase().replace('_', ' ')
+                    + (route.detail != null ? " (" + route.detail + ")" : ""));
+            if (!route.assets.isEmpty()) {
+                System.out.println("    Assets: " + String.join(", ", route.assets));
+            }
+        }
+
+        System.out.println();
+        System.out.println("=== Unexplored Branches ===");
+        boolean any = false;
+        for (Route route : found) {
+            if (route.outcome == Outcome.CUT_OFF || route.outcome == Outcome.ERROR) {
+                System.out.println("  " + route.describePath() + ": " + route.detail);
+                any = true;
+            }
+        }
+        if (!any) {
+            System.out.println("  None");
+        }
+
+        if (program != null) {
+            List<Integer> unreachable = unreachableSteps();
+            System.out.println();
+            System.out.println("=== Unreachable Lines (" + unreachable.size() + " of " + program.getStepCount()
+                    + ") ===");
+            for (int step : unreachable) {
+                String label = program.labelBefore(program.pcOfStep(step));
+                System.out.println("  #" + step + (label != null ? " after '" + label + "'" : "") + ": "
+                        + program.describeStep(step));
+            }
+            if (counts[Outcome.CUT_OFF.ordinal()] > 0 || counts[Outcome.ERROR.ordinal()] > 0) {
+                System.out.println("  (Some routes stopped early; lines past them may still be reachable)");
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String className = null;
+        String vns = null;
+        int maxChoices = 32;
+        int maxLines = 20_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean merge = true;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--vns":
+                    vns = args[++i];
+                    break;
+                case "--max-choices":
+                    maxChoices = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-lines":
+                    maxLines = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--no-merge":
+                    merge = false;
+                    break;
+                default:
+                    className = args[i];
+                    break;
+            }
+        }
+        if (className == null && vns == null) {
+            System.out.println("Usage: RouteExplorer <script class> | --vns <name>"
+                    + " [--max-choices N] [--max-lines N] [--threads N] [--no-merge]");
+            return;
+        }
+
+        RouteExplorer explorer;
+        if (vns != null) {
+            explorer = new RouteExplorer(VnsScript.load(vns));
+        } else {
+            Class<? extends GameScript> type = Class.forName(className).asSubclass(GameScript.class);
+            explorer = new RouteExplorer(() -> {
+                try {
+                    return type.getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create " + type.getName(), e);
+                }
+            });
+        }
+        explorer.setMaxChoices(maxChoices);
+        explorer.setMaxLines(maxLines);
+        explorer.setMerge(merge);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        List<Route> found = explorer.explore(pool);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        pool.shutdown();
+        explorer.printReport(found, elapsedMs, threads);
+    }
+}
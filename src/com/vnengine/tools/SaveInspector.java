@@ -27,6 +27,9 @@ public class SaveInspector {
 
                 System.out.println("  --- State ---");
                 System.out.println("  Background: " + data.currentBackground);
+                if (data.backgroundLayers != null) {
+                    System.out.println("  Layers    : " + data.backgroundLayers);
+                }
                 System.out.println("  Music     : " + data.currentMusic);
                 if (data.windowSize != null) {
                     System.out.println("  Window Size: " + data.windowSize.width + "x" + data.windowSize.height);
@@ -40,7 +43,19 @@ public class SaveInspector {
                     System.out.println("  Dialog Pos : Default");
                 }
 
-                if (data.visibleCharacters != null && !data.visibleCharacters.isEmpty()) {
+                if (data.scene != null && !data.scene.isEmpty()) {
+                    System.out.println("  Characters: ");
+                    for (com.vnengine.core.SceneNode node : data.scene.getNodes()) {
+                        System.out.println("    - " + node.name + ": " + node.sprite + " (z " + node.z + ")");
+                        if (node.hasPosition()) {
+                            System.out.println("      Pos  : (" + node.getX() + ", " + node.getY() + ")");
+                        }
+                        System.out.println("      Scale: " + node.scale);
+                        if (node.alpha < 1f) {
+                            System.out.println("      Alpha: " + node.alpha);
+                        }
+                    }
+                } else if (data.visibleCharacters != null && !data.visibleCharacters.isEmpty()) {
                     System.out.println("  Characters: ");
                     for (String name : data.visibleCharacters.keySet()) {
                         System.out.println("    - " + name + ": " + data.visibleCharacters.get(name));
@@ -56,6 +71,19 @@ public class SaveInspector {
                     System.out.println("  Characters: None");
                 }
 
+                if (data.variables != null) {
+                    System.out.println("  Variables : " + data.variables);
+                }
+                if (data.nvlMode != null) {
+                    System.out.println("  NVL Mode  : " + data.nvlMode);
+                }
+                if (data.choices != null) {
+                    System.out.println("  Choices   : " + java.util.Arrays.toString(data.choices));
+                }
+                if (data.checkpoint != null) {
+                    System.out.println("  Checkpoint: " + data.checkpoint.id + " (step " + data.checkpoint.step + ")");
+                }
+
                 System.out.println("  File Size : " + f.length() + " bytes");
             } catch (Exception e) {
                 System.out.println("  [ERROR] Could not read file: " + e.getMessage());
@@ -1,18 +1,24 @@
 package com.vnengine.ui;
 
+import com.vnengine.core.Camera;
 import com.vnengine.core.GameEngine;
+import com.vnengine.core.IdleAnimation;
+import com.vnengine.core.LayeredBackground;
 import com.vnengine.core.SaveManager;
 import com.vnengine.core.SaveData;
+import com.vnengine.core.SceneGraph;
+import com.vnengine.core.SceneNode;
 import com.vnengine.core.SettingsManager;
+import com.vnengine.core.SpriteAnimation;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.io.File;
-import javax.imageio.ImageIO;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import com.vnengine.core.GameEngine.LogEntry;
 
 public class GameWindow extends JFrame {
@@ -51,13 +57,19 @@ public class GameWindow extends JFrame {
 
     // For save/load slot hover
     private int hoveredSlot = -1;
+    private int hoveredLine = -1; // History entry under the mouse
 
     // Animation for overlay fade
     private float overlayAlpha = 0f;
     private OverlayState targetOverlay = OverlayState.NONE;
 
     // Auto Mode
-    private long autoModeDelayTarget = -1;
+    private long autoModeDelayTarget = -1; // Engine clock nanos
+    private long lastFrameTime = -1;
+
+    // Cutscene playback (EDT only)
+    private MoviePlayer moviePlayer = null;
+    private String moviePlayerName = null;
 
     public void applySettings() {
         SettingsManager sm = SettingsManager.getInstance();
@@ -151,6 +163,9 @@ public class GameWindow extends JFrame {
         im.put(KeyStroke.getKeyStroke("ENTER"), "advance");
         im.put(KeyStroke.getKeyStroke("ESCAPE"), "closeOverlay");
         im.put(KeyStroke.getKeyStroke("released A"), "toggleAuto");
+        im.put(KeyStroke.getKeyStroke("released S"), "toggleSkip");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_CONTROL, InputEvent.CTRL_DOWN_MASK, false), "holdSkip");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_CONTROL, 0, true), "releaseSkip");
 
         am.put("advance", new AbstractAction() {
             @Override
@@ -169,6 +184,9 @@ public class GameWindow extends JFrame {
         am.put("closeOverlay", new AbstractAction() {
             @Override
             public void actionPerformed(java.awt.event.ActionEvent e) {
+                if (engine.cancelLoad()) {
+                    return; // Escape first stops a load that has not restored the scene yet
+                }
                 if (currentOverlay != OverlayState.NONE) {
                     closeOverlay();
                 }
@@ -185,6 +203,32 @@ public class GameWindow extends JFrame {
             }
         });
 
+        am.put("toggleSkip", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                if (currentOverlay == OverlayState.NONE) {
+                    engine.setSkipMode(!engine.isSkipMode());
+                    panel.repaint();
+                }
+            }
+        });
+
+        am.put("holdSkip", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                if (currentOverlay == OverlayState.NONE && !engine.isMainMenu()) {
+                    engine.setSkipHeld(true);
+                }
+            }
+        });
+
+        am.put("releaseSkip", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                engine.setSkipHeld(false);
+            }
+        });
+
         panel.addMouseListener(new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent e) {
@@ -198,6 +242,11 @@ public class GameWindow extends JFrame {
                     return;
                 }
 
+                // Clicks during a load would be aimed at the old scene
+                if (engine.isLoading()) {
+                    return;
+                }
+
                 if (engine.isMainMenu()) {
                     handleMainMenuClick(e);
                     return;
@@ -223,7 +272,8 @@ public class GameWindow extends JFrame {
                 int saveX = histX - tbW - scale(10);
                 int loadX = saveX - tbW - scale(10);
                 int autoX = loadX - tbW - scale(10);
-                int settingsX = autoX - tbW - scale(10);
+                int skipX = autoX - tbW - scale(10);
+                int settingsX = skipX - tbW - scale(10);
 
                 // Toolbar checks
                 if (e.getY() >= tbY && e.getY() <= tbY + tbH) {
@@ -244,6 +294,11 @@ public class GameWindow extends JFrame {
                         panel.repaint();
                         return;
                     }
+                    if (e.getX() >= skipX && e.getX() <= skipX + tbW) {
+                        engine.setSkipMode(!engine.isSkipMode());
+                        panel.repaint();
+                        return;
+                    }
                     if (e.getX() >= settingsX && e.getX() <= settingsX + tbW) {
                         openOverlay(OverlayState.SETTINGS);
                         return;
@@ -258,10 +313,15 @@ public class GameWindow extends JFrame {
                         engine.onOptionSelected(idx);
                     }
                 } else {
-                    // Stop auto mode on manual interaction
+                    // Stop auto and skip mode on manual interaction
                     if (engine.isAutoMode()) {
                         engine.setAutoMode(false);
                     }
+                    if (engine.isSkipMode()) {
+                        engine.setSkipMode(false);
+                        panel.repaint();
+                        return;
+                    }
                     engine.onUserClick();
                 }
             }
@@ -276,6 +336,12 @@ public class GameWindow extends JFrame {
                         hoveredSlot = newHovered;
                         panel.repaint();
                     }
+                } else if (currentOverlay == OverlayState.HISTORY) {
+                    int newHovered = getHistoryLineAtPosition(e.getX(), e.getY());
+                    if (newHovered != hoveredLine) {
+                        hoveredLine = newHovered;
+                        panel.repaint();
+                    }
                 }
             }
         });
@@ -295,13 +361,19 @@ public class GameWindow extends JFrame {
 
         // Animation timer
         Timer timer = new Timer(16, e -> {
-            panel.update();
+            long now = engine.getClock().nanoTime();
+            // Fraction of a 16ms frame that passed, so fades keep their speed at any frame rate
+            float frames = lastFrameTime < 0 ? 1f : (now - lastFrameTime) / 16_000_000f;
+            lastFrameTime = now;
+            engine.tick(now);
+            updateMovie(now);
+            panel.update(now);
 
             // Animate overlay alpha
             if (targetOverlay != OverlayState.NONE && overlayAlpha < 1f) {
-                overlayAlpha = Math.min(1f, overlayAlpha + 0.1f);
+                overlayAlpha = Math.min(1f, overlayAlpha + 0.1f * frames);
             } else if (targetOverlay == OverlayState.NONE && overlayAlpha > 0f) {
-                overlayAlpha = Math.max(0f, overlayAlpha - 0.1f);
+                overlayAlpha = Math.max(0f, overlayAlpha - 0.1f * frames);
                 if (overlayAlpha == 0f) {
                     currentOverlay = OverlayState.NONE;
                 }
@@ -311,8 +383,8 @@ public class GameWindow extends JFrame {
             if (engine.isAutoMode() && currentOverlay == OverlayState.NONE && uiVisible) {
                 if (panel.renderer.isFinished()) {
                     if (autoModeDelayTarget == -1) {
-                        autoModeDelayTarget = System.currentTimeMillis() + 1500; // 1.5s delay after text finishes
-                    } else if (System.currentTimeMillis() > autoModeDelayTarget) {
+                        autoModeDelayTarget = now + 1_500_000_000L; // 1.5s delay after text finishes
+                    } else if (now > autoModeDelayTarget) {
                         engine.onUserClick();
                         autoModeDelayTarget = -1;
                     }
@@ -323,16 +395,85 @@ public class GameWindow extends JFrame {
                 autoModeDelayTarget = -1;
             }
 
-            panel.repaint();
+            // Static frames only need the partial repaints requested by
+            // whatever changed (e.g. an idle blink)
+            if (needsFullFrame()) {
+                panel.repaint();
+            }
         });
         timer.start();
     }
 
+    // Start, stop and finish the cutscene player to follow the engine
+    private void updateMovie(long now) {
+        String movie = engine.getCurrentMovie();
+        if (movie != null && (moviePlayer == null || !movie.equals(moviePlayerName))) {
+            if (moviePlayer != null)
+                moviePlayer.stop();
+            moviePlayer = new MoviePlayer(movie, engine.getCurrentMovieFps(), panel.getWidth(), panel.getHeight());
+            moviePlayerName = movie;
+            if (!moviePlayer.start()) {
+                moviePlayer = null;
+                engine.onMovieFinished();
+            }
+        } else if (movie == null && moviePlayer != null) {
+            moviePlayer.stop();
+            moviePlayer = null;
+            moviePlayerName = null;
+            panel.repaint();
+        } else if (moviePlayer != null && moviePlayer.isFinished(now)) {
+            engine.onMovieFinished();
+        }
+    }
+
+    private boolean needsFullFrame() {
+        if (moviePlayer != null)
+            return true;
+        if (!panel.renderer.isFinished() || panel.renderer.hasAnimatedGlyphs())
+            return true;
+        if (currentOverlay != OverlayState.NONE || overlayAlpha > 0)
+            return true;
+        if (engine.isLoading())
+            return true;
+        if (engine.getCamera().isAnimating())
+            return true;
+        LayeredBackground layers = engine.getBackgroundLayers();
+        if (layers != null) {
+            for (LayeredBackground.Layer layer : layers.getLayers()) {
+                if (layer.scrollSpeed != 0)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of frames in a sprite sheet, decoding it on first use. EDT only.
+     */
+    public int getFrameCount(String sheet, int columns, int rows) {
+        SpriteSheet s = panel.getSheet(sheet, columns, rows);
+        return s != null ? s.getFrameCount() : 1;
+    }
+
+    /**
+     * Repaint only the area a character covered in the last frame, including
+     * room for its idle breathing.
+     */
+    public void repaintCharacter(String name) {
+        Rectangle bounds = panel.characterBounds.get(name);
+        if (bounds == null) {
+            panel.repaint();
+        } else {
+            panel.repaint(bounds.x - 1, bounds.y - 1, bounds.width + 2, bounds.height + 2);
+        }
+    }
+
     private void openOverlay(OverlayState state) {
         if (state == OverlayState.HISTORY) {
             historyScrollOffset = 0;
         }
         hoveredSlot = -1;
+        hoveredLine = -1;
         currentOverlay = state;
         targetOverlay = state;
     }
@@ -340,6 +481,23 @@ public class GameWindow extends JFrame {
     private void closeOverlay() {
         targetOverlay = OverlayState.NONE;
         hoveredSlot = -1;
+        hoveredLine = -1;
+    }
+
+    // Index into the backlog of the History entry at (mx, my), or -1
+    private int getHistoryLineAtPosition(int mx, int my) {
+        StyleManager sm = StyleManager.getInstance();
+        int overlayWidth = scale(sm.getInt(".overlay-panel", "width", 700));
+        int overlayHeight = scale(sm.getInt(".overlay-panel", "height", 500));
+        int contentX = (panel.getWidth() - overlayWidth) / 2 + scale(20);
+        int contentY = (panel.getHeight() - overlayHeight) / 2 + scale(70);
+        int contentWidth = overlayWidth - scale(40);
+        int contentHeight = overlayHeight - scale(90);
+        if (mx < contentX || mx > contentX + contentWidth || my < contentY || my >= contentY + contentHeight)
+            return -1;
+        int entryHeight = scale(sm.getInt(".history-entry", "height", 80));
+        int line = (my - contentY + historyScrollOffset) / entryHeight;
+        return line < engine.getBacklog().size() ? line : -1;
     }
 
     private int getSlotAtPosition(int mx, int my) {
@@ -436,6 +594,15 @@ public class GameWindow extends JFrame {
             return;
         }
 
+        // History: clicking an earlier line goes back to it
+        if (currentOverlay == OverlayState.HISTORY) {
+            int line = getHistoryLineAtPosition(e.getX(), e.getY());
+            if (line != -1 && engine.jumpBack(line)) {
+                closeOverlay();
+            }
+            return;
+        }
+
         // Settings Interaction
         if (currentOverlay == OverlayState.SETTINGS) {
             int startY = overlayY + scale(100);
@@ -491,6 +658,16 @@ public class GameWindow extends JFrame {
                 panel.repaint();
                 return;
             }
+
+            // 5. Skip Unread, on the same row
+            int skipCheckX = sliderX + sliderWidth - scale(30);
+            if (e.getY() >= rowY && e.getY() <= rowY + scale(30) &&
+                    e.getX() >= skipCheckX && e.getX() <= skipCheckX + scale(30)) {
+                boolean unread = SettingsManager.getInstance().isSkipUnread();
+                SettingsManager.getInstance().setSkipUnread(!unread);
+                panel.repaint();
+                return;
+            }
             return;
         }
 
@@ -552,64 +729,132 @@ public class GameWindow extends JFrame {
         panel.renderer.skip();
     }
 
+    /**
+     * Show a line fully revealed, e.g. the latest one skip mode went past.
+     * Call on the EDT.
+     */
+    public void showLineInstantly(String text) {
+        panel.renderer.setText(text);
+        panel.renderer.skip();
+        panel.repaint();
+    }
+
     public void updateDialogue(String name, String text) {
+        if (engine.isNvlMode()) {
+            // The page and the typewriter must change together
+            SwingUtilities.invokeLater(() -> {
+                panel.renderer.setText(text);
+                nvlPage.append(name, text);
+                panel.repaint();
+            });
+            return;
+        }
         panel.renderer.setText(text);
         panel.repaint();
     }
 
-    private Map<String, BufferedImage> imageCache = new HashMap<>();
+    // NVL page, only touched on the EDT
+    private final NvlPage nvlPage = new NvlPage(first -> engine.nvlPageTurned(first));
 
-    private BufferedImage loadImage(String name) {
-        if (imageCache.containsKey(name)) {
-            return imageCache.get(name);
+    public void clearNvlPage() {
+        SwingUtilities.invokeLater(() -> {
+            nvlPage.clear();
+            panel.repaint();
+        });
+    }
+
+    /**
+     * Put earlier lines back on the NVL page, e.g. after loading a save.
+     *
+     * @param firstIndex number of the first line, counting every NVL line
+     *                   the engine added (see {@link GameEngine#nvlPageTurned})
+     */
+    public void setNvlPage(java.util.List<String[]> lines, int firstIndex) {
+        java.util.List<String[]> copy = new java.util.ArrayList<>(lines);
+        SwingUtilities.invokeLater(() -> nvlPage.setLines(copy, firstIndex));
+    }
+
+    private final ImageLoader images = ImageLoader.getInstance();
+    private final java.util.Set<String> awaitedImages = java.util.concurrent.ConcurrentHashMap.newKeySet();
+    private ScaledImageCache scaledImages = new ScaledImageCache(); // Pre-scaled copies
+    private Map<String, TiledLayer> tiledLayers = new java.util.LinkedHashMap<String, TiledLayer>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TiledLayer> eldest) {
+            return size() > 12; // A few scenes worth of layers
         }
-        try {
-            String[] extensions = { ".png", ".jpg", ".jpeg" };
-            String[] searchPaths = {
-                    "resources/images/",
-                    "resources/backgrounds/",
-                    "resources/characters/",
-                    "resources/"
-            };
-
-            File file = null;
-
-            for (String path : searchPaths) {
-                for (String ext : extensions) {
-                    File f = new File(path + name + ext);
-                    if (f.exists()) {
-                        file = f;
-                        break;
-                    }
-                }
-                if (file != null)
-                    break;
+    };
 
-                File f = new File(path + name);
-                if (f.exists()) {
-                    file = f;
-                    break;
-                }
+    // Never decodes on the EDT: an image that isn't ready yet is drawn on
+    // the first frame after it is
+    private BufferedImage loadImage(String name) {
+        java.util.concurrent.CompletableFuture<BufferedImage> image = images.request(name);
+        if (!image.isDone()) {
+            if (awaitedImages.add(name)) {
+                image.thenRun(() -> {
+                    awaitedImages.remove(name);
+                    panel.repaint();
+                });
             }
+            return null;
+        }
+        return image.join();
+    }
+
+    /**
+     * Like {@link #prefetchImage(String, boolean)}, treating images in
+     * resources/backgrounds as backgrounds.
+     */
+    public boolean prefetchImage(String name) {
+        java.io.File file = name != null && !name.startsWith("#") ? ImageLoader.find(name) : null;
+        return file != null && prefetchImage(name, file.getParentFile().getName().equals("backgrounds"));
+    }
+
+    /**
+     * Decode {@code name} in the background and pre-scale it for the current
+     * window size, as a background ({@code background} set) or as a
+     * character at scale 1. Safe to call from any thread.
+     *
+     * @return false if there is no image called {@code name}
+     */
+    public boolean prefetchImage(String name, boolean background) {
+        return whenPrefetched(name, background) != null;
+    }
 
-            if (file != null) {
-                BufferedImage img = ImageIO.read(file);
-                imageCache.put(name, img);
-                return img;
+    /**
+     * Like {@link #prefetchImage(String, boolean)}, for callers that wait
+     * for the image, e.g. a load restoring a scene.
+     *
+     * @return completes once the image is decoded and pre-scaled; null if
+     *         there is no image called {@code name}
+     */
+    public CompletableFuture<Void> whenPrefetched(String name, boolean background) {
+        if (name == null || name.startsWith("#") || ImageLoader.find(name) == null)
+            return null;
+        return images.request(name).thenAcceptAsync(src -> {
+            int width = panel.getWidth();
+            int height = panel.getHeight();
+            if (src == null || width == 0 || height == 0)
+                return;
+            double drawW;
+            if (background) {
+                // Same cover fit as paintComponent
+                double imgRatio = (double) src.getWidth() / src.getHeight();
+                drawW = (double) width / height > imgRatio ? width : (int) (height * imgRatio);
             } else {
-                System.err.println("Image not found: " + name);
+                int h = scale(500);
+                drawW = (int) ((double) src.getWidth() / src.getHeight() * h);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return null;
+            scaledImages.prepare(name, src, drawW);
+        }, images::execute);
     }
 
     private class GamePanel extends JPanel {
         KineticTextRenderer renderer = new KineticTextRenderer();
+        Map<String, Rectangle> characterBounds = new HashMap<>(); // Last painted area, panel space
+        private Map<String, SpriteSheet> sheets = new HashMap<>();
 
-        public void update() {
-            renderer.update();
+        public void update(long now) {
+            renderer.update(now);
         }
 
         @Override
@@ -624,12 +869,42 @@ public class GameWindow extends JFrame {
                 if (currentOverlay != OverlayState.NONE || overlayAlpha > 0) {
                     drawOverlay(g2d);
                 }
+                drawLoadProgress(g2d);
                 return;
             }
 
-            // 1. Draw Background
+            // Cutscenes cover the whole scene and UI
+            if (moviePlayer != null) {
+                g2d.setColor(Color.BLACK);
+                g2d.fillRect(0, 0, getWidth(), getHeight());
+                BufferedImage frame = moviePlayer.frameAt(engine.getClock().nanoTime());
+                if (frame != null) {
+                    g2d.drawImage(frame, 0, 0, getWidth(), getHeight(), null);
+                }
+                if (currentOverlay != OverlayState.NONE || overlayAlpha > 0) {
+                    drawOverlay(g2d);
+                }
+                return;
+            }
+
+            // 1. Draw Background and characters through the camera
+            Camera camera = engine.getCamera();
+            AffineTransform screenTransform = g2d.getTransform();
+            double zoom = camera.getZoom();
+            LayeredBackground layers = engine.getBackgroundLayers();
+            if (layers != null) {
+                // Layers carry their own parallax transform
+                drawLayeredBackground(g2d, layers, camera);
+            }
+            if (!camera.isIdentity()) {
+                g2d.transform(camera.getTransform(getWidth(), getHeight(), getScaleFactor(), 1.0));
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            }
+
             String bgPath = engine.getCurrentBackground();
-            if (bgPath != null) {
+            if (layers != null) {
+                // Already drawn
+            } else if (bgPath != null) {
                 if (bgPath.startsWith("#")) {
                     g2d.setColor(Color.decode(bgPath));
                     g2d.fillRect(0, 0, getWidth(), getHeight());
@@ -656,7 +931,10 @@ public class GameWindow extends JFrame {
                             drawY = 0;
                         }
 
-                        g2d.drawImage(bg, drawX, drawY, drawW, drawH, null);
+                        g2d.drawImage(scaledImages.get(bgPath, bg, drawW * zoom), drawX, drawY, drawW, drawH, null);
+                    } else if (images.isLoading(bgPath)) {
+                        g2d.setColor(Color.BLACK); // Drawn as soon as it is decoded
+                        g2d.fillRect(0, 0, getWidth(), getHeight());
                     } else {
                         g2d.setColor(Color.DARK_GRAY);
                         g2d.fillRect(0, 0, getWidth(), getHeight());
@@ -670,44 +948,94 @@ public class GameWindow extends JFrame {
             }
 
             // 2. Draw Characters
-            Map<String, String> characters = engine.getVisibleCharacters();
+            SceneGraph scene = engine.getScene(); // One consistent snapshot for the whole frame
 
-            int totalWidth = characters.size() * scale(300);
+            int totalWidth = scene.size() * scale(300);
             int charStartX = (getWidth() - totalWidth) / 2 + scale(50);
             int xOffset = charStartX;
 
-            for (Map.Entry<String, String> entry : characters.entrySet()) {
-                String name = entry.getKey();
-                String spriteName = entry.getValue();
+            AffineTransform cameraTransform = camera.isIdentity() ? new AffineTransform()
+                    : camera.getTransform(getWidth(), getHeight(), getScaleFactor(), 1.0);
+            characterBounds.keySet().removeIf(name -> !scene.contains(name));
+            Composite baseComposite = g2d.getComposite();
+
+            for (SceneNode node : scene.getNodes()) {
+                String name = node.name;
+                String spriteName = node.sprite;
                 BufferedImage sprite = loadImage(spriteName);
+                IdleAnimation idle = engine.getIdleAnimation(spriteName);
+                double breath = 1.0;
+                SpriteAnimation animation = engine.getAnimation(name);
+                if (animation != null) {
+                    SpriteSheet sheet = getSheet(animation.sheet, animation.columns, animation.rows);
+                    if (sheet != null) {
+                        int frame = engine.getAnimationFrame(name);
+                        spriteName = animation.sheet + "#" + frame;
+                        sprite = sheet.getFrame(frame);
+                    }
+                    idle = null; // The sheet owns the character while it plays
+                } else if (idle != null && sprite != null) {
+                    int frame = engine.getIdleFrame(name);
+                    if (frame >= 0) {
+                        SpriteSheet strip = getStrip(idle.blinkStrip, idle.blinkFrames);
+                        if (strip != null) {
+                            spriteName = idle.blinkStrip + "#" + frame;
+                            sprite = strip.getFrame(frame);
+                        }
+                    }
+                    breath = engine.getIdleBreath(name);
+                }
 
                 int drawX = xOffset;
                 int drawY = scale(150);
 
-                Point customPos = engine.getCharacterPosition(name);
-                if (customPos != null) {
-                    drawX = scale(customPos.x); // Assuming engine stores unscaled coords
-                    drawY = scale(customPos.y);
+                if (node.hasPosition()) {
+                    drawX = scale(node.getX()); // Assuming engine stores unscaled coords
+                    drawY = scale(node.getY());
                 } else {
                     xOffset += scale(300);
                 }
 
+                if (node.alpha <= 0f) {
+                    characterBounds.remove(name);
+                    continue;
+                }
+                if (node.alpha < 1f) {
+                    g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, node.alpha));
+                }
+
                 if (sprite != null) {
-                    double charScale = engine.getCharacterScale(name);
+                    double charScale = node.scale;
                     int h = scale((int) (500 * charScale));
                     int w = (int) ((double) sprite.getWidth() / sprite.getHeight() * h);
-                    g2d.drawImage(sprite, drawX, drawY, w, h, null);
-                } else {
+                    // Breathing stretches upwards from the feet
+                    int breathH = (int) Math.round(h * breath);
+                    g2d.drawImage(scaledImages.get(spriteName, sprite, w * zoom), drawX, drawY + h - breathH, w,
+                            breathH, null);
+
+                    int maxH = idle != null ? (int) Math.ceil(h * (1 + Math.abs(idle.breathAmplitude))) : h;
+                    characterBounds.put(name, cameraTransform
+                            .createTransformedShape(new Rectangle(drawX, drawY + h - maxH, w, maxH)).getBounds());
+                } else if (!images.isLoading(spriteName)) {
                     g2d.setColor(Color.BLUE);
                     g2d.fillRect(drawX, drawY, scale(200), scale(400));
                     g2d.setColor(Color.WHITE);
                     g2d.drawString(name, drawX + scale(50), drawY + scale(50));
                 }
+                g2d.setComposite(baseComposite);
             }
 
+            g2d.setTransform(screenTransform);
+
             // Draw Dialogue Box Content
             if (uiVisible && currentOverlay == OverlayState.NONE) {
-                drawDialogueBox(g2d);
+                boolean nvl = engine.isNvlMode() && !nvlPage.isEmpty();
+                if (nvl) {
+                    g2d.setColor(new Color(0, 0, 0, 170));
+                    g2d.fillRect(0, 0, getWidth(), getHeight());
+                } else {
+                    drawDialogueBox(g2d);
+                }
 
                 String speaker = engine.getCurrentSpeaker();
                 String text = engine.getCurrentDialogue();
@@ -784,11 +1112,23 @@ public class GameWindow extends JFrame {
                     int autoX = loadX - tbW - scale(10);
                     drawToolbarButton(g2d, "Auto", autoX, tbY, tbW, tbH, engine.isAutoMode());
 
-                    int settingsX = autoX - tbW - scale(10);
+                    int skipX = autoX - tbW - scale(10);
+                    drawToolbarButton(g2d, "Skip", skipX, tbY, tbW, tbH, engine.isSkipMode());
+
+                    int settingsX = skipX - tbW - scale(10);
                     drawToolbarButton(g2d, "Config", settingsX, tbY, tbW, tbH, false);
 
-                    // Draw speaker name
-                    if (speaker != null) {
+                    if (nvl) {
+                        int margin = scale(60);
+                        int top = tbY + tbH + scale(30);
+                        renderer.setFont(scale(new Font("SansSerif", Font.PLAIN, 24)));
+                        Font nameFont = scale(new Font(sm.getString(".dialog-box", "font-family", "SansSerif"),
+                                Font.BOLD, sm.getInt(".dialog-box", "name-font-size", 28)));
+                        nvlPage.draw(g2d, renderer, margin, top, getWidth() - margin * 2,
+                                getHeight() - top - margin, nameFont,
+                                sm.getColor(".dialog-box", "name-color", new Color(255, 200, 100)), scale(16));
+                    } else if (speaker != null) {
+                        // Draw speaker name
                         int nameFontSize = sm.getInt(".dialog-box", "name-font-size", 28);
                         g2d.setFont(scale(new Font(sm.getString(".dialog-box", "font-family", "SansSerif"), Font.BOLD,
                                 nameFontSize)));
@@ -797,13 +1137,15 @@ public class GameWindow extends JFrame {
                         g2d.drawString(speaker, textX, nameY);
                     }
 
-                    // Draw dialogue text using renderer
-                    int maxWidth = getWidth() - boxX - paddingLeft
+                    if (!nvl) {
+                        // Draw dialogue text using renderer
+                        int maxWidth = getWidth() - boxX - paddingLeft
                             - scale(sm.getInt(".dialog-box", "padding-right", 40));
 
-                    // Update renderer font
-                    renderer.setFont(scale(new Font("SansSerif", Font.PLAIN, 24)));
-                    renderer.draw(g2d, textX, textY, maxWidth);
+                        // Update renderer font
+                        renderer.setFont(scale(new Font("SansSerif", Font.PLAIN, 24)));
+                        renderer.draw(g2d, textX, textY, maxWidth);
+                    }
                 }
             }
 
@@ -811,7 +1153,90 @@ public class GameWindow extends JFrame {
             if (currentOverlay != OverlayState.NONE || overlayAlpha > 0) {
                 drawOverlay(g2d);
             }
+            drawLoadProgress(g2d);
+
+        }
+
+        // Bar along the bottom while a save loads
+        private void drawLoadProgress(Graphics2D g2d) {
+            float progress = engine.getLoadProgress();
+            String stage = engine.getLoadStage();
+            if (progress < 0 || stage == null)
+                return;
+            StyleManager sm = StyleManager.getInstance();
+            int barW = scale(sm.getInt(".load-progress", "width", 400));
+            int barH = scale(sm.getInt(".load-progress", "height", 8));
+            int barX = (getWidth() - barW) / 2;
+            int barY = getHeight() - scale(60);
+
+            g2d.setColor(new Color(0, 0, 0, 120));
+            g2d.fillRect(0, 0, getWidth(), getHeight());
+
+            g2d.setColor(sm.getColor(".load-progress", "background-color", new Color(255, 255, 255, 60)));
+            g2d.fillRoundRect(barX, barY, barW, barH, barH, barH);
+            g2d.setColor(sm.getColor(".load-progress", "bar-color", new Color(255, 200, 100)));
+            g2d.fillRoundRect(barX, barY, Math.max(barH, (int) (barW * progress)), barH, barH, barH);
+
+            g2d.setColor(sm.getColor(".load-progress", "text-color", Color.WHITE));
+            g2d.setFont(scale(new Font("SansSerif", Font.PLAIN, 16)));
+            String label = stage + "...";
+            int labelW = g2d.getFontMetrics().stringWidth(label);
+            g2d.drawString(label, (getWidth() - labelW) / 2, barY - scale(12));
+        }
+
+        private SpriteSheet getStrip(String name, int frames) {
+            return getSheet(name, frames, 1);
+        }
+
+        // Sheets are decoded once and sliced into sub-images; the scaled image
+        // cache pre-scales each frame the first time it is drawn.
+        private SpriteSheet getSheet(String name, int columns, int rows) {
+            String key = name + "@" + columns + "x" + rows;
+            SpriteSheet sheet = sheets.get(key);
+            if (sheet == null && !sheets.containsKey(key)) {
+                BufferedImage img = loadImage(name);
+                if (img == null)
+                    return null;
+                sheet = SpriteSheet.slice(name, img, columns, rows);
+                sheets.put(key, sheet); // Null for a bad grid, so it is reported once
+            }
+            return sheet;
+        }
 
+        private void drawLayeredBackground(Graphics2D g2d, LayeredBackground bg, Camera camera) {
+            Rectangle viewport = new Rectangle(0, 0, getWidth(), getHeight());
+            g2d.setColor(Color.BLACK);
+            g2d.fill(viewport);
+
+            double seconds = (engine.getClock().nanoTime() - engine.getBackgroundLayersStart()) / 1_000_000_000.0;
+            for (LayeredBackground.Layer layer : bg.getLayers()) {
+                TiledLayer tiled = getTiledLayer(layer.image, camera.getZoom());
+                if (tiled == null)
+                    continue;
+                AffineTransform view = camera.getTransform(getWidth(), getHeight(), getScaleFactor(), layer.depth);
+                // Start centered like a cover-fit background, then drift
+                double offsetX = (getWidth() - tiled.getDrawWidth()) / 2
+                        - layer.scrollSpeed * seconds * getScaleFactor();
+                tiled.draw(g2d, view, offsetX, viewport);
+            }
+        }
+
+        private TiledLayer getTiledLayer(String name, double zoom) {
+            BufferedImage src = loadImage(name);
+            if (src == null || getHeight() == 0)
+                return null;
+
+            // Oversample in half steps when zoomed in, but never beyond the source resolution
+            double density = Math.max(1.0, Math.ceil(zoom * 2) / 2);
+            density = Math.max(1.0, Math.min(density, (double) src.getHeight() / getHeight()));
+
+            String key = name + "@" + getHeight() + "x" + density;
+            TiledLayer tiled = tiledLayers.get(key);
+            if (tiled == null) {
+                tiled = new TiledLayer(src, getHeight(), density);
+                tiledLayers.put(key, tiled);
+            }
+            return tiled;
         }
 
         private void drawMainMenu(Graphics2D g2d) {
@@ -1002,7 +1427,12 @@ public class GameWindow extends JFrame {
             int historyIndex = 0;
             for (LogEntry entry : backlog) {
                 if (currentY + entryHeight > contentY && currentY < contentY + contentHeight) {
-                    if (historyIndex % 2 == 0) {
+                    if (historyIndex == hoveredLine && historyIndex < backlog.size() - 1) {
+                        // Earlier lines can be clicked to go back to them
+                        g2d.setColor(sm.getColor(".history-entry", "hover-background-color",
+                                new Color(255, 255, 255, 30)));
+                        g2d.fillRect(contentX, currentY, contentWidth, entryHeight);
+                    } else if (historyIndex % 2 == 0) {
                         g2d.setColor(new Color(255, 255, 255, 10));
                         g2d.fillRect(contentX, currentY, contentWidth, entryHeight);
                     }
@@ -1294,6 +1724,18 @@ public class GameWindow extends JFrame {
                 g2d.fillRect(checkX + scale(5), rowY + scale(5), scale(20), scale(20));
             }
 
+            // 5. Skip Unread, on the same row
+            int skipCheckX = checkX + sliderWidth - scale(30);
+            g2d.setColor(textColor);
+            g2d.drawString("Skip Unread", skipCheckX - g2d.getFontMetrics().stringWidth("Skip Unread") - scale(15),
+                    rowY + scale(22));
+            g2d.setColor(barColor);
+            g2d.drawRect(skipCheckX, rowY, scale(30), scale(30));
+            if (sm.isSkipUnread()) {
+                g2d.setColor(fillColor);
+                g2d.fillRect(skipCheckX + scale(5), rowY + scale(5), scale(20), scale(20));
+            }
+
             // 5. Controls Info
             rowY += scale(60);
             g2d.setColor(new Color(200, 200, 200, alpha));
@@ -1306,8 +1748,9 @@ public class GameWindow extends JFrame {
 
             drawControlLine(g2d, "Advance / Select", "Space / Enter / Click", contentX, controlY, alpha);
             drawControlLine(g2d, "Toggle Auto", "A", contentX, controlY + controlGap, alpha);
-            drawControlLine(g2d, "Hide UI", "Right Click", contentX, controlY + controlGap * 2, alpha);
-            drawControlLine(g2d, "Back / Close Menu", "Esc", contentX, controlY + controlGap * 3, alpha);
+            drawControlLine(g2d, "Skip (Hold / Toggle)", "Ctrl / S", contentX, controlY + controlGap * 2, alpha);
+            drawControlLine(g2d, "Hide UI", "Right Click", contentX, controlY + controlGap * 3, alpha);
+            drawControlLine(g2d, "Back / Close Menu", "Esc", contentX, controlY + controlGap * 4, alpha);
         }
 
         private void drawControlLine(Graphics2D g2d, String action, String keys, int x, int y, int globalAlpha) {
@@ -0,0 +1,24 @@
+package com.vnengine.ui;
+
+/**
+ * A per-glyph text effect, switched on in dialogue with {@code [tag]} and off
+ * with {@code [/tag]}. Register custom effects with
+ * {@link GlyphEffects#register(String, GlyphEffect)}.
+ *
+ * {@link #apply} runs for every affected glyph on every frame, so it must not
+ * allocate. Use the lookup tables in {@link GlyphEffects} instead of
+ * {@code Math.random()} or {@code Math.sin()} so a line always animates the
+ * same way.
+ */
+public interface GlyphEffect {
+    void apply(GlyphState state);
+
+    /**
+     * @return false if the effect only changes glyphs while they are being
+     *         revealed (within eight glyphs of the typewriter), so the text
+     *         can stop repainting once it is finished
+     */
+    default boolean isAnimated() {
+        return true;
+    }
+}
@@ -0,0 +1,141 @@
+package com.vnengine.ui;
+
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of text effect tags, plus the lookup tables effects use in place
+ * of {@code Math.sin()} and {@code Math.random()}.
+ *
+ * Tags are compiled into effect IDs once when a line is parsed; each glyph
+ * then carries a bit mask of its active effects, so there are at most 64.
+ *
+ * Built in: [shake], [wave], [fade] (glyphs fade in as they are typed),
+ * [pulse] and [rainbow].
+ */
+public final class GlyphEffects {
+    public static final int MAX_EFFECTS = 64;
+
+    private static final int SIN_SIZE = 1024;
+    private static final int NOISE_SIZE = 4096;
+    private static final int HUE_SIZE = 64;
+    private static final float[] SIN = new float[SIN_SIZE + 1];
+    private static final float[] NOISE = new float[NOISE_SIZE];
+    private static final Color[] HUES = new Color[HUE_SIZE];
+
+    private static final Map<String, Integer> ids = new HashMap<>();
+    private static final GlyphEffect[] effects = new GlyphEffect[MAX_EFFECTS];
+    private static int count = 0;
+
+    static {
+        for (int i = 0; i <= SIN_SIZE; i++) {
+            SIN[i] = (float) Math.sin(2 * Math.PI * i / SIN_SIZE);
+        }
+        // Fixed seed, so the table (and every shake) is the same on every run
+        long x = 0x2545F4914F6CDD1DL;
+        for (int i = 0; i < NOISE_SIZE; i++) {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+            NOISE[i] = ((x >>> 40) / (float) (1L << 24)) * 2f - 1f;
+        }
+        for (int i = 0; i < HUE_SIZE; i++) {
+            HUES[i] = new Color(Color.HSBtoRGB((float) i / HUE_SIZE, 0.7f, 1f));
+        }
+
+        // Offsets are in unscaled pixels at the base 24pt font
+        register("shake", s -> {
+            s.dx += noise(s.seed, s.index * 2, s.tick) * 2f;
+            s.dy += noise(s.seed, s.index * 2 + 1, s.tick) * 2f;
+        });
+        register("wave", s -> s.dy += sin((s.tick * 0.1f + s.index * 0.5f) / 6.2831855f) * 5f);
+        register("fade", new GlyphEffect() {
+            @Override
+            public void apply(GlyphState s) {
+                s.alpha *= Math.max(0f, Math.min(1f, s.reveal / 4f)); // Over about four glyphs
+            }
+
+            @Override
+            public boolean isAnimated() {
+                return false;
+            }
+        });
+        register("pulse", s -> s.scale *= 1f + 0.15f * sin(s.tick / 60f - s.index * 0.05f));
+        register("rainbow", s -> s.color = hue(s.tick / 120f + s.index * 0.05f));
+    }
+
+    private GlyphEffects() {
+    }
+
+    /**
+     * Register (or replace) the effect for {@code [tag]...[/tag]}. Tag names
+     * are lowercase letters, digits and underscores.
+     *
+     * @return the effect ID
+     */
+    public static synchronized int register(String tag, GlyphEffect effect) {
+        Integer existing = ids.get(tag);
+        if (existing != null) {
+            effects[existing] = effect;
+            return existing;
+        }
+        if (count >= MAX_EFFECTS) {
+            System.err.println("Too many text effects, ignoring [" + tag + "]");
+            return -1;
+        }
+        effects[count] = effect;
+        ids.put(tag, count);
+        return count++;
+    }
+
+    /**
+     * @return the effect ID for a tag, or -1 if it is not registered
+     */
+    public static synchronized int lookup(String tag) {
+        Integer id = ids.get(tag);
+        return id != null ? id : -1;
+    }
+
+    static GlyphEffect get(int id) {
+        return effects[id];
+    }
+
+    static synchronized long animatedMask() {
+        long mask = 0;
+        for (int i = 0; i < count; i++) {
+            if (effects[i].isAnimated())
+                mask |= 1L << i;
+        }
+        return mask;
+    }
+
+    // --- Lookup tables ---
+
+    /**
+     * Sine of a phase given in turns (1.0 = one full period).
+     */
+    public static float sin(float turns) {
+        float pos = (turns - (float) Math.floor(turns)) * SIN_SIZE;
+        int i = Math.min((int) pos, SIN_SIZE - 1);
+        return SIN[i] + (SIN[i + 1] - SIN[i]) * (pos - i);
+    }
+
+    /**
+     * Repeatable noise in [-1, 1) for a seed and two coordinates.
+     */
+    public static float noise(int seed, int a, int b) {
+        int h = seed * 0x9E3779B1 + a * 0x85EBCA6B + b * 0xC2B2AE35;
+        h ^= h >>> 15;
+        h *= 0x2C1B3C6D;
+        h ^= h >>> 12;
+        return NOISE[h & (NOISE_SIZE - 1)];
+    }
+
+    /**
+     * Saturated color at a hue given in turns, from a fixed palette.
+     */
+    public static Color hue(float turns) {
+        return HUES[(int) ((turns - (float) Math.floor(turns)) * HUE_SIZE) & (HUE_SIZE - 1)];
+    }
+}
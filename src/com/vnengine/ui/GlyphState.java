@@ -0,0 +1,32 @@
+package com.vnengine.ui;
+
+import java.awt.Color;
+
+/**
+ * Inputs and outputs of a {@link GlyphEffect} for one glyph. The renderer
+ * reuses a single instance, resetting the outputs before each glyph and
+ * running every active effect on it in turn.
+ */
+public final class GlyphState {
+    // Inputs
+    public int index; // Position of the glyph in the line
+    public int tick; // Frames (at 60fps, from the engine clock) since the line was shown
+    public int seed; // Same for every showing of the same line
+    public float reveal; // How many glyphs the typewriter is past this one
+
+    // Outputs
+    public float dx;
+    public float dy;
+    public float scale;
+    public float alpha;
+    public Color color; // Null keeps the text color
+
+    void reset(int index) {
+        this.index = index;
+        dx = 0;
+        dy = 0;
+        scale = 1f;
+        alpha = 1f;
+        color = null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.vnengine.ui;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decodes images on a small pool of background threads, so painting never
+ * waits for a file. Images are requested ahead of time by the prefetcher
+ * (see {@code GameEngine.prefetch}); anything painted before it is ready
+ * shows up a frame or two later instead of stalling the frame.
+ *
+ * Decoded images are normalized to premultiplied ARGB, the format the
+ * scaled image cache and Java2D draw fastest.
+ */
+final class ImageLoader {
+    private static final ImageLoader INSTANCE = new ImageLoader();
+
+    private static final String[] EXTENSIONS = { ".png", ".jpg", ".jpeg" };
+    private static final String[] SEARCH_PATHS = {
+            "resources/images/",
+            "resources/backgrounds/",
+            "resources/characters/",
+            "resources/"
+    };
+
+    private final ExecutorService pool;
+    private final Map<String, CompletableFuture<BufferedImage>> images = new ConcurrentHashMap<>();
+
+    private ImageLoader() {
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "image-loader");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1); // Behind the EDT and the script
+            return t;
+        });
+    }
+
+    static ImageLoader getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the decoded image, completing with null if there is no such
+     *         file; decoding starts on the first request
+     */
+    CompletableFuture<BufferedImage> request(String name) {
+        return images.computeIfAbsent(name, n -> CompletableFuture.supplyAsync(() -> decode(n), pool));
+    }
+
+    /**
+     * @return the image if it is decoded, otherwise null (and decoding starts)
+     */
+    BufferedImage getNow(String name) {
+        return request(name).getNow(null);
+    }
+
+    /**
+     * @return whether {@code name} was requested and is still being decoded
+     */
+    boolean isLoading(String name) {
+        CompletableFuture<BufferedImage> image = images.get(name);
+        return image != null && !image.isDone();
+    }
+
+    /**
+     * Run {@code task} on the loader threads, e.g. to pre-scale a decoded image.
+     */
+    void execute(Runnable task) {
+        pool.execute(task);
+    }
+
+    static File find(String name) {
+        for (String path : SEARCH_PATHS) {
+            for (String ext : EXTENSIONS) {
+                File f = new File(path + name + ext);
+                if (f.exists())
+                    return f;
+            }
+            File f = new File(path + name);
+            if (f.isFile())
+                return f;
+        }
+        return null;
+    }
+
+    private static BufferedImage decode(String name) {
+        try {
+            File file = find(name);
+            if (file == null) {
+                System.err.println("Image not found: " + name);
+                return null;
+            }
+            BufferedImage img = javax.imageio.ImageIO.read(file);
+            return img != null ? normalize(img) : null;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static BufferedImage normalize(BufferedImage img) {
+        if (img.getType() == BufferedImage.TYPE_INT_ARGB_PRE)
+            return img;
+        BufferedImage out = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = out.createGraphics();
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return out;
+    }
+}
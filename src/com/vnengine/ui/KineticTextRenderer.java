@@ -17,14 +17,39 @@ public class KineticTextRenderer {
     }
 
     private boolean isFinished = false;
-    private long lastTime;
+    private boolean hasAnimatedGlyphs = false;
+    private boolean hasRevealEffects = false;
+    private long lastTime = -1; // Clock time of the previous update, -1 before the first
+    private long shownAt = -1;
+    private static final double NANOS_PER_FRAME = 1_000_000_000.0 / 60; // Speeds are given per 60fps frame
 
     // Animation states
-    private float time = 0; // Accumulated time for wave effects
+    private int tick = 0; // 60fps frames of clock time since the line was shown, drives glyph effects
+    private int seed = 0; // Per line, so effects replay identically
+    private final GlyphState state = new GlyphState();
+
+    // Reveal effects such as [fade] keep running this many glyphs past the end
+    private static final int REVEAL_TAIL = 8;
+    private static final Pattern TAG = Pattern.compile("\\[(/?)([a-z_][a-z0-9_]*)(?:=(#?[a-zA-Z0-9]+))?\\]");
+    private static final AlphaComposite[] ALPHAS = new AlphaComposite[17];
+
+    static {
+        for (int i = 0; i < ALPHAS.length; i++) {
+            ALPHAS[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, i / (float) (ALPHAS.length - 1));
+        }
+    }
 
     private Font baseFont;
     private Color defaultColor = Color.WHITE;
 
+    // Cached wrap, relative to the first baseline
+    private Font layoutFont;
+    private int layoutWidth = -1;
+    private int layoutHeight;
+    private int[] glyphX = new int[0];
+    private int[] glyphY = new int[0];
+    private int[] glyphAdvance = new int[0];
+
     public KineticTextRenderer() {
         baseFont = new Font("SansSerif", Font.PLAIN, 24);
     }
@@ -34,7 +59,13 @@ public class KineticTextRenderer {
         this.glyphs.clear();
         this.visibleGlyphs = 0;
         this.isFinished = false;
-        this.time = 0;
+        this.hasAnimatedGlyphs = false;
+        this.hasRevealEffects = false;
+        this.tick = 0;
+        this.lastTime = -1;
+        this.shownAt = -1;
+        this.seed = text.hashCode();
+        this.layoutFont = null;
         parseText(text);
     }
 
@@ -42,147 +73,229 @@ public class KineticTextRenderer {
         this.baseFont = font;
     }
 
+    public Font getFont() {
+        return baseFont;
+    }
+
     public boolean isFinished() {
         return isFinished;
     }
 
+    /**
+     * @return true if some glyph keeps moving after the reveal finished
+     */
+    public boolean hasAnimatedGlyphs() {
+        return hasAnimatedGlyphs || (hasRevealEffects && visibleGlyphs < glyphs.size() + REVEAL_TAIL);
+    }
+
     public void skip() {
-        visibleGlyphs = glyphs.size();
+        visibleGlyphs = glyphs.size() + REVEAL_TAIL;
         isFinished = true;
     }
 
-    public void update() {
-        if (!isFinished) {
-            visibleGlyphs += typeSpeed;
+    /**
+     * Advance the reveal and effects to clock time {@code now}. Progress
+     * depends only on elapsed time, not on how often this is called.
+     */
+    public void update(long now) {
+        if (lastTime < 0 || shownAt < 0) {
+            lastTime = now;
+            shownAt = now;
+        }
+        double frames = (now - lastTime) / NANOS_PER_FRAME;
+        lastTime = now;
+
+        if (visibleGlyphs < glyphs.size() + REVEAL_TAIL) {
+            visibleGlyphs += (float) (typeSpeed * frames);
             if (visibleGlyphs >= glyphs.size()) {
-                visibleGlyphs = glyphs.size();
                 isFinished = true;
             }
         }
-        time += 0.1f;
+        tick = (int) ((now - shownAt) / NANOS_PER_FRAME);
     }
 
-    public void draw(Graphics2D g, int x, int y, int maxWidth) {
-        g.setFont(baseFont);
-        FontMetrics fm = g.getFontMetrics();
-        int lineHeight = fm.getHeight();
-
-        int currentX = x;
-        int currentY = y;
-
-        int limit = (int) visibleGlyphs;
+    /**
+     * Wrap the line for a font and width. The result is cached until the
+     * text, font or width changes, so drawing does not re-wrap every frame.
+     *
+     * @return height of the wrapped text in pixels
+     */
+    public int layout(FontMetrics fm, int maxWidth) {
+        if (fm.getFont().equals(layoutFont) && maxWidth == layoutWidth)
+            return layoutHeight;
 
-        int spaceWidth = fm.charWidth(' ');
+        int lineHeight = fm.getHeight();
+        int currentX = 0;
+        int currentY = 0;
+        int n = glyphs.size();
+        if (glyphX.length < n) {
+            glyphX = new int[n];
+            glyphY = new int[n];
+            glyphAdvance = new int[n];
+        }
 
-        for (int i = 0; i < glyphs.size(); i++) {
+        for (int i = 0; i < n; i++) {
             Glyph glyph = glyphs.get(i);
 
             // Check if we need to wrap *this word*
             // Find end of current word
             if (glyph.c != ' ' && (i == 0 || glyphs.get(i - 1).c == ' ')) {
                 int wordWidth = 0;
-                for (int j = i; j < glyphs.size(); j++) {
+                for (int j = i; j < n; j++) {
                     Glyph g2 = glyphs.get(j);
                     if (g2.c == ' ')
                         break;
                     wordWidth += fm.charWidth(g2.c);
                 }
-                if (currentX + wordWidth > x + maxWidth) {
-                    currentX = x;
+                if (currentX + wordWidth > maxWidth && currentX > 0) {
+                    currentX = 0;
                     currentY += lineHeight;
                 }
             }
 
-            // Apply effects to position
-            int drawX = currentX;
-            int drawY = currentY;
+            glyphX[i] = currentX;
+            glyphY[i] = currentY;
+            glyphAdvance[i] = fm.charWidth(glyph.c);
+            currentX += glyphAdvance[i];
+        }
 
-            if (glyph.shake) {
-                drawX += (Math.random() - 0.5) * 4; // +/- 2px
-                drawY += (Math.random() - 0.5) * 4;
-            }
-            if (glyph.wave) {
-                drawY += Math.sin(time + (i * 0.5)) * 5;
-            }
+        layoutFont = fm.getFont();
+        layoutWidth = maxWidth;
+        layoutHeight = currentY + lineHeight;
+        return layoutHeight;
+    }
+
+    public void draw(Graphics2D g, int x, int y, int maxWidth) {
+        g.setFont(baseFont);
+        FontMetrics fm = g.getFontMetrics();
+        layout(fm, maxWidth);
+        Composite baseComposite = g.getComposite();
+
+        int limit = (int) Math.min(visibleGlyphs, glyphs.size());
+
+        for (int i = 0; i < limit; i++) {
+            Glyph glyph = glyphs.get(i);
+            int currentX = x + glyphX[i];
+            int currentY = y + glyphY[i];
+            int advance = glyphAdvance[i];
 
             // Draw
-            if (i < limit) {
-                g.setColor(glyph.color != null ? glyph.color : defaultColor);
-                g.drawString(String.valueOf(glyph.c), drawX, drawY);
+            Color color = glyph.color != null ? glyph.color : defaultColor;
+            if (glyph.effects == 0) {
+                g.setColor(color);
+                g.drawString(glyph.text, currentX, currentY);
+            } else {
+                applyEffects(glyph, i);
+                g.setColor(state.color != null ? state.color : color);
+                if (state.alpha < 1f) {
+                    g.setComposite(ALPHAS[Math.max(0, Math.round(state.alpha * (ALPHAS.length - 1)))]);
+                }
+                float drawX = currentX + state.dx;
+                float drawY = currentY + state.dy;
+                if (state.scale != 1f) {
+                    // Scale around the glyph's center
+                    float cx = drawX + advance / 2f;
+                    float cy = drawY - fm.getAscent() / 2f;
+                    g.translate(cx, cy);
+                    g.scale(state.scale, state.scale);
+                    g.drawString(glyph.text, -advance / 2f, fm.getAscent() / 2f);
+                    g.scale(1.0 / state.scale, 1.0 / state.scale);
+                    g.translate(-cx, -cy);
+                } else {
+                    g.drawString(glyph.text, drawX, drawY);
+                }
+                if (state.alpha < 1f) {
+                    g.setComposite(baseComposite);
+                }
             }
+        }
+    }
 
-            currentX += fm.charWidth(glyph.c);
+    private void applyEffects(Glyph glyph, int index) {
+        state.reset(index);
+        state.tick = tick;
+        state.seed = seed;
+        state.reveal = visibleGlyphs - index;
+        long mask = glyph.effects;
+        while (mask != 0) {
+            int id = Long.numberOfTrailingZeros(mask);
+            GlyphEffects.get(id).apply(state);
+            mask &= mask - 1;
         }
     }
 
+    // Compiles tags into per-glyph effect masks once, so drawing never looks at tag names
     private void parseText(String text) {
-
-        String pattern = "(\\[/?[a-z]+(=#?[a-fA-F0-9]+)?\\])";
-        String[] parts = text.split(pattern);
-
-        // To reconstruct correctly, we need the matches too.
-        Matcher m = Pattern.compile(pattern).matcher(text);
+        Matcher m = TAG.matcher(text);
 
         int lastIdx = 0;
 
-        boolean shake = false;
-        boolean wave = false;
+        long effects = 0;
         Color currentColor = null;
 
         while (m.find()) {
             String segment = text.substring(lastIdx, m.start());
-            addSegment(segment, shake, wave, currentColor);
+            addSegment(segment, effects, currentColor);
 
-            String tag = m.group();
+            boolean closing = !m.group(1).isEmpty();
+            String name = m.group(2);
+            String val = m.group(3);
             // Process tag
-            if (tag.equals("[shake]"))
-                shake = true;
-            else if (tag.equals("[/shake]"))
-                shake = false;
-            else if (tag.equals("[wave]"))
-                wave = true;
-            else if (tag.equals("[/wave]"))
-                wave = false;
-            else if (tag.startsWith("[color=")) {
-                String val = tag.substring(7, tag.length() - 1);
-                try {
-                    if (val.startsWith("#"))
-                        currentColor = Color.decode(val);
-                    else if (val.equalsIgnoreCase("red"))
-                        currentColor = Color.RED;
-                    else if (val.equalsIgnoreCase("blue"))
-                        currentColor = Color.BLUE;
-                    else if (val.equalsIgnoreCase("green"))
-                        currentColor = Color.GREEN;
-                    // add more as needed
-                } catch (Exception e) {
+            if (name.equals("color")) {
+                if (closing) {
+                    currentColor = null;
+                } else if (val != null) {
+                    try {
+                        if (val.startsWith("#"))
+                            currentColor = Color.decode(val);
+                        else if (val.equalsIgnoreCase("red"))
+                            currentColor = Color.RED;
+                        else if (val.equalsIgnoreCase("blue"))
+                            currentColor = Color.BLUE;
+                        else if (val.equalsIgnoreCase("green"))
+                            currentColor = Color.GREEN;
+                        // add more as needed
+                    } catch (Exception e) {
+                    }
+                }
+            } else {
+                int id = GlyphEffects.lookup(name);
+                if (id >= 0) {
+                    if (closing)
+                        effects &= ~(1L << id);
+                    else
+                        effects |= 1L << id;
                 }
-            } else if (tag.equals("[/color]"))
-                currentColor = null;
+            }
 
             lastIdx = m.end();
         }
 
         if (lastIdx < text.length()) {
-            addSegment(text.substring(lastIdx), shake, wave, currentColor);
+            addSegment(text.substring(lastIdx), effects, currentColor);
         }
     }
 
-    private void addSegment(String text, boolean shake, boolean wave, Color color) {
+    private void addSegment(String text, long effects, Color color) {
+        long animated = effects != 0 ? GlyphEffects.animatedMask() : 0;
         for (char c : text.toCharArray()) {
             Glyph g = new Glyph();
             g.c = c;
-            g.shake = shake;
-            g.wave = wave;
+            g.text = String.valueOf(c);
+            g.effects = effects;
             g.color = color;
             glyphs.add(g);
         }
+        if (!text.isEmpty()) {
+            hasAnimatedGlyphs |= (effects & animated) != 0;
+            hasRevealEffects |= (effects & ~animated) != 0;
+        }
     }
 
     private static class Glyph {
         char c;
-        boolean shake;
-        boolean wave;
+        String text; // Cached so drawing does not build a String per frame
+        long effects; // Bit per GlyphEffects ID
         Color color;
     }
 }
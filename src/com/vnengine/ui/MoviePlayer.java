@@ -0,0 +1,243 @@
+package com.vnengine.ui;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.imageio.ImageIO;
+
+/**
+ * Streams a short cutscene stored either as numbered images in
+ * {@code resources/movies/<name>/} or as a packed {@code resources/movies/<name>.vnm}
+ * file.
+ *
+ * A decoder thread reads, decodes and pre-scales frames into a small bounded
+ * ring buffer ahead of the playhead. The EDT takes frames by clock time and
+ * drops any it is already late for, so memory stays bounded by the buffer no
+ * matter how long the clip is.
+ *
+ * Packed format: "VNM1", int fps, int frameCount, then per frame an int
+ * length followed by the encoded PNG/JPEG bytes (big-endian, DataOutputStream).
+ */
+class MoviePlayer {
+    private static final int BUFFER_FRAMES = 8;
+    private static final String MOVIE_DIR = "resources/movies/";
+
+    private static class Frame {
+        final int index;
+        final BufferedImage image;
+
+        Frame(int index, BufferedImage image) {
+            this.index = index;
+            this.image = image;
+        }
+    }
+
+    private final BlockingQueue<Frame> buffer = new ArrayBlockingQueue<>(BUFFER_FRAMES);
+    private final String name;
+    private final int width;
+    private final int height;
+    private volatile double fps; // May come from the packed header, set by the decoder
+    private volatile int frameCount = -1;
+    private long startNanos = -1;
+
+    private volatile boolean decoderDone = false;
+    private Thread decoder;
+    private Frame current;
+
+    MoviePlayer(String name, double fps, int width, int height) {
+        this.name = name;
+        this.fps = fps;
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+    }
+
+    /**
+     * @return false if no movie with this name exists
+     */
+    boolean start() {
+        File packed = new File(MOVIE_DIR + name + ".vnm");
+        File dir = new File(MOVIE_DIR + name);
+        Runnable source;
+        if (packed.isFile()) {
+            source = () -> decodePacked(packed);
+        } else if (dir.isDirectory()) {
+            File[] files = listFrames(dir);
+            frameCount = files.length;
+            if (fps <= 0)
+                fps = 24;
+            source = () -> decodeFiles(files);
+        } else {
+            System.err.println("Movie not found: " + name);
+            return false;
+        }
+
+        decoder = new Thread(() -> {
+            try {
+                source.run();
+            } finally {
+                decoderDone = true;
+            }
+        }, "movie-decoder-" + name);
+        decoder.setDaemon(true);
+        decoder.start();
+        return true;
+    }
+
+    void stop() {
+        if (decoder != null) {
+            decoder.interrupt();
+        }
+        buffer.clear();
+        current = null;
+    }
+
+    /**
+     * Frame to present at clock time {@code now}, or the last one presented
+     * if the decoder has not caught up. Late frames are dropped.
+     */
+    BufferedImage frameAt(long now) {
+        if (startNanos < 0) {
+            // Start the clock on the first presented frame so decoder warm-up
+            // does not eat into the clip
+            if (buffer.peek() == null)
+                return null;
+            startNanos = now;
+        }
+        long target = (long) ((now - startNanos) * fps / 1_000_000_000.0);
+        Frame next;
+        while ((next = buffer.peek()) != null && next.index <= target) {
+            current = buffer.poll();
+        }
+        return current != null ? current.image : null;
+    }
+
+    boolean isFinished(long now) {
+        if (!decoderDone || !buffer.isEmpty())
+            return false;
+        if (startNanos < 0 || frameCount <= 0)
+            return true;
+        return (now - startNanos) * fps / 1_000_000_000.0 >= frameCount;
+    }
+
+    // --- Decoder thread ---
+
+    private void decodeFiles(File[] files) {
+        for (int i = 0; i < files.length; i++) {
+            try {
+                if (!offer(i, ImageIO.read(files[i])))
+                    return;
+            } catch (IOException e) {
+                System.err.println("Bad movie frame: " + files[i] + " (" + e.getMessage() + ")");
+            }
+        }
+    }
+
+    private void decodePacked(File file) {
+        int frame = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            byte[] magic = new byte[4];
+            in.readFully(magic);
+            if (!"VNM1".equals(new String(magic, "US-ASCII"))) {
+                System.err.println("Not a VNM movie: " + file);
+                frameCount = 0;
+                return;
+            }
+            int headerFps = in.readInt();
+            if (fps <= 0)
+                fps = headerFps > 0 ? headerFps : 24;
+            int count = in.readInt();
+            long remaining = file.length() - 12; // Bytes after the header
+            if (count < 0) {
+                System.err.println("Corrupt movie " + file + ": " + count + " frames");
+                frameCount = 0;
+                return;
+            }
+            count = (int) Math.min(count, remaining / 4); // Every frame takes at least its length
+            frameCount = count;
+
+            byte[] data = new byte[0];
+            for (; frame < count; frame++) {
+                int length = in.readInt();
+                remaining -= 4;
+                if (length < 0 || length > remaining) {
+                    System.err.println("Corrupt movie " + file + ": frame " + frame + " is " + length + " bytes");
+                    frameCount = frame; // End after the frames already decoded
+                    return;
+                }
+                remaining -= length;
+                if (data.length < length)
+                    data = new byte[length]; // Reused across frames
+                in.readFully(data, 0, length);
+                if (!offer(frame, ImageIO.read(new ByteArrayInputStream(data, 0, length))))
+                    return;
+            }
+        } catch (EOFException e) {
+            System.err.println("Movie " + file + " is cut off after " + frame + " frames");
+            frameCount = frame;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading movie " + file + ": " + e.getMessage());
+            frameCount = frame;
+        }
+    }
+
+    // Blocks while the buffer is full; returns false once playback is stopped
+    private boolean offer(int index, BufferedImage img) {
+        if (img == null)
+            return true;
+        try {
+            buffer.put(new Frame(index, scaleToCover(img)));
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private BufferedImage scaleToCover(BufferedImage src) {
+        double ratio = Math.max((double) width / src.getWidth(), (double) height / src.getHeight());
+        int w = (int) Math.round(src.getWidth() * ratio);
+        int h = (int) Math.round(src.getHeight() * ratio);
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(src, (width - w) / 2, (height - h) / 2, w, h, null);
+        g.dispose();
+        return out;
+    }
+
+    private static File[] listFrames(File dir) {
+        File[] files = dir.listFiles((d, n) -> {
+            String lower = n.toLowerCase();
+            return lower.endsWith(".png") || lower.endsWith(".jpg") || lower.endsWith(".jpeg");
+        });
+        if (files == null)
+            return new File[0];
+        // Numeric order, so frame_2 comes before frame_10
+        Arrays.sort(files, (a, b) -> {
+            long na = frameNumber(a.getName());
+            long nb = frameNumber(b.getName());
+            return na != nb ? Long.compare(na, nb) : a.getName().compareTo(b.getName());
+        });
+        return files;
+    }
+
+    private static long frameNumber(String fileName) {
+        String digits = fileName.replaceAll("\\D+", "");
+        if (digits.isEmpty())
+            return -1;
+        try {
+            return Long.parseLong(digits.length() > 18 ? digits.substring(digits.length() - 18) : digits);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
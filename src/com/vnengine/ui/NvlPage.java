@@ -0,0 +1,189 @@
+package com.vnengine.ui;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Full-screen page of dialogue for NVL mode.
+ *
+ * Only the newest paragraph is live: it is drawn by the window's typewriter
+ * renderer. Once the next line arrives, the previous one is wrapped and
+ * rasterized a single time and then drawn as a cached image until the page
+ * is cleared. A paragraph that does not fit below the others starts a new
+ * page, and the paragraphs before it are dropped. Used on the EDT only.
+ *
+ * Lines are numbered in the order they were added, counting every line the
+ * page ever had, so the engine can forget the ones a page turn dropped.
+ */
+class NvlPage {
+    private static class Paragraph {
+        final String speaker;
+        final String text;
+        final int index; // Line number
+        int y = -1; // Top of the paragraph relative to the page, -1 until laid out
+        int height;
+        BufferedImage image;
+
+        Paragraph(String speaker, String text, int index) {
+            this.speaker = speaker;
+            this.text = text;
+            this.index = index;
+        }
+    }
+
+    private final List<Paragraph> finished = new ArrayList<>();
+    private Paragraph current;
+    private final KineticTextRenderer stamp = new KineticTextRenderer(); // Rasterizes finished paragraphs
+    private final IntConsumer onTurn; // Told the number of the first line left on a turned page
+    private int nextIndex = 0;
+
+    // Geometry the current layout was made for
+    private int layoutWidth = -1;
+    private int layoutHeight = -1;
+    private Font layoutFont;
+
+    NvlPage(IntConsumer onTurn) {
+        this.onTurn = onTurn;
+    }
+
+    void clear() {
+        finished.clear();
+        current = null;
+    }
+
+    /**
+     * Show earlier lines of the page at once, e.g. after loading a save.
+     * They are laid out on the next draw, keeping only the last full page.
+     *
+     * @param firstIndex number of the first of {@code lines}
+     */
+    void setLines(List<String[]> lines, int firstIndex) {
+        clear();
+        nextIndex = firstIndex;
+        for (String[] line : lines) {
+            append(line[0], line[1]);
+        }
+    }
+
+    void append(String speaker, String text) {
+        if (current != null) {
+            finished.add(current);
+        }
+        current = new Paragraph(speaker, text, nextIndex++);
+    }
+
+    boolean isEmpty() {
+        return current == null;
+    }
+
+    /**
+     * Draw the page into the given area. {@code renderer} must already hold
+     * the newest paragraph's text.
+     */
+    void draw(Graphics2D g, KineticTextRenderer renderer, int x, int y, int width, int height,
+            Font nameFont, Color nameColor, int spacing) {
+        if (current == null)
+            return;
+
+        Font textFont = renderer.getFont();
+        if (width != layoutWidth || height != layoutHeight || !textFont.equals(layoutFont)) {
+            // Resized: lay out and rasterize everything again
+            for (Paragraph p : finished) {
+                p.y = -1;
+                p.image = null;
+            }
+            current.y = -1;
+            layoutWidth = width;
+            layoutHeight = height;
+            layoutFont = textFont;
+        }
+
+        int nameHeight = g.getFontMetrics(nameFont).getHeight();
+        int cursor = 0;
+        boolean turned = false;
+        for (int i = 0; i < finished.size(); i++) {
+            Paragraph p = finished.get(i);
+            if (p.y < 0) {
+                stamp.setText(p.text);
+                p.height = measure(g, stamp, textFont, p, nameHeight, width);
+                if (cursor > 0 && cursor + p.height > height) {
+                    finished.subList(0, i).clear(); // Page is full, turn it
+                    i = 0;
+                    cursor = 0;
+                    turned = true;
+                }
+                p.y = cursor;
+            }
+            cursor = p.y + p.height + spacing;
+        }
+
+        if (current.y < 0) {
+            current.height = measure(g, renderer, textFont, current, nameHeight, width);
+            if (cursor > 0 && cursor + current.height > height) {
+                finished.clear();
+                cursor = 0;
+                turned = true;
+            }
+            current.y = cursor;
+        }
+        if (turned) {
+            onTurn.accept(finished.isEmpty() ? current.index : finished.get(0).index);
+        }
+
+        for (Paragraph p : finished) {
+            if (p.image == null) {
+                p.image = rasterize(g, p, textFont, nameFont, nameColor, nameHeight, width);
+            }
+            g.drawImage(p.image, x, y + p.y, width, p.height, null);
+        }
+
+        int textTop = y + current.y;
+        if (current.speaker != null) {
+            g.setFont(nameFont);
+            g.setColor(nameColor);
+            g.drawString(current.speaker, x, textTop + g.getFontMetrics().getAscent());
+            textTop += nameHeight;
+        }
+        renderer.draw(g, x, textTop + g.getFontMetrics(textFont).getAscent(), width);
+    }
+
+    private static int measure(Graphics2D g, KineticTextRenderer r, Font textFont, Paragraph p, int nameHeight,
+            int width) {
+        r.setFont(textFont);
+        FontMetrics fm = g.getFontMetrics(textFont);
+        return (p.speaker != null ? nameHeight : 0) + r.layout(fm, width);
+    }
+
+    private BufferedImage rasterize(Graphics2D target, Paragraph p, Font textFont, Font nameFont, Color nameColor,
+            int nameHeight, int width) {
+        // Match the device scale so cached text stays sharp on HiDPI screens
+        double deviceScale = Math.max(1.0, target.getTransform().getScaleX());
+        BufferedImage img = new BufferedImage((int) Math.ceil(width * deviceScale),
+                (int) Math.ceil(Math.max(1, p.height) * deviceScale), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.scale(deviceScale, deviceScale);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        int textTop = 0;
+        if (p.speaker != null) {
+            g.setFont(nameFont);
+            g.setColor(nameColor);
+            g.drawString(p.speaker, 0, g.getFontMetrics().getAscent());
+            textTop = nameHeight;
+        }
+        stamp.setText(p.text);
+        stamp.setFont(textFont);
+        stamp.skip();
+        stamp.draw(g, 0, textTop + g.getFontMetrics(textFont).getAscent(), width);
+        g.dispose();
+        return img;
+    }
+}
@@ -0,0 +1,89 @@
+package com.vnengine.ui;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of pre-scaled copies of decoded images.
+ * Requested sizes are rounded up to 1/8 steps of the source size so animated
+ * scales (camera zoom, tweens) reuse a handful of cached copies and only pay a
+ * small residual resample at draw time instead of resampling the full
+ * resolution source every frame.
+ *
+ * Copies are usually made on the EDT the first time they are drawn, but the
+ * prefetcher can make them ahead of time from a loader thread with
+ * {@link #prepare}.
+ */
+class ScaledImageCache {
+    private static final int MAX_ENTRIES = 96; // Room for a few sheets worth of animation frames
+    private static final int STEPS = 8;
+
+    private final Map<String, BufferedImage> cache = new LinkedHashMap<String, BufferedImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Get a copy of {@code src} that is at least {@code width} pixels wide, or
+     * {@code src} itself when that would mean upscaling.
+     */
+    public BufferedImage get(String name, BufferedImage src, double width) {
+        int step = step(src, width);
+        if (step >= STEPS)
+            return src;
+
+        String key = name + "@" + step;
+        BufferedImage scaled;
+        synchronized (cache) {
+            scaled = cache.get(key);
+        }
+        if (scaled == null) {
+            scaled = scale(src, (double) step / STEPS);
+            synchronized (cache) {
+                cache.put(key, scaled);
+            }
+        }
+        return scaled;
+    }
+
+    /**
+     * Make the copy {@link #get} would return for {@code width}, unless it
+     * is cached already. Safe to call from any thread.
+     */
+    public void prepare(String name, BufferedImage src, double width) {
+        get(name, src, width);
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    // 1/8 steps of the source width; STEPS means the source itself
+    private static int step(BufferedImage src, double width) {
+        if (src == null || width <= 0)
+            return STEPS;
+        double ratio = width / src.getWidth();
+        if (ratio >= 1.0)
+            return STEPS; // Never upscale, let drawImage magnify
+        return (int) Math.ceil(ratio * STEPS);
+    }
+
+    private static BufferedImage scale(BufferedImage src, double factor) {
+        int w = Math.max(1, (int) Math.round(src.getWidth() * factor));
+        int h = Math.max(1, (int) Math.round(src.getHeight() * factor));
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(src, 0, 0, w, h, null);
+        g.dispose();
+        return out;
+    }
+}
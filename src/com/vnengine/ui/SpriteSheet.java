@@ -0,0 +1,48 @@
+package com.vnengine.ui;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Frames cut from one decoded image. Frames are sub-images sharing the
+ * sheet's raster, so slicing costs no pixel copies.
+ */
+class SpriteSheet {
+    private final BufferedImage[] frames;
+
+    /**
+     * Slice a grid of {@code columns} x {@code rows} frames, read left to
+     * right, top to bottom. A column count of 0 slices square frames.
+     *
+     * @return null, after reporting it, if the grid has more cells than the
+     *         image has pixels
+     */
+    static SpriteSheet slice(String name, BufferedImage image, int columns, int rows) {
+        int rowCount = Math.max(1, rows);
+        int frameH = image.getHeight() / rowCount;
+        int cols = columns > 0 ? columns : (frameH > 0 ? Math.max(1, image.getWidth() / frameH) : 1);
+        int frameW = image.getWidth() / cols;
+        if (frameW == 0 || frameH == 0) {
+            System.err.println("Bad sprite sheet: " + name + " is " + image.getWidth() + "x" + image.getHeight()
+                    + ", too small for " + cols + "x" + rowCount + " frames");
+            return null;
+        }
+        return new SpriteSheet(image, cols, rowCount, frameW, frameH);
+    }
+
+    private SpriteSheet(BufferedImage image, int cols, int rowCount, int frameW, int frameH) {
+        frames = new BufferedImage[cols * rowCount];
+        for (int r = 0; r < rowCount; r++) {
+            for (int c = 0; c < cols; c++) {
+                frames[r * cols + c] = image.getSubimage(c * frameW, r * frameH, frameW, frameH);
+            }
+        }
+    }
+
+    int getFrameCount() {
+        return frames.length;
+    }
+
+    BufferedImage getFrame(int index) {
+        return frames[Math.max(0, Math.min(frames.length - 1, index))];
+    }
+}
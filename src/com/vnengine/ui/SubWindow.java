@@ -5,9 +5,7 @@ import com.vnengine.util.Easing;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.File;
 import java.io.IOException;
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.util.HashMap;
 import java.util.Map;
@@ -32,9 +30,6 @@ public class SubWindow extends JFrame {
     protected String currentSpeaker = null;
     protected String currentText = null;
 
-    // Cache
-    private Map<String, BufferedImage> imageCache = new HashMap<>();
-
     public SubWindow(String id, String title, int width, int height) {
         this.id = id;
         setTitle(title);
@@ -109,40 +104,10 @@ public class SubWindow extends JFrame {
     private BufferedImage loadImage(String name) {
         if (name == null)
             return null;
-        if (imageCache.containsKey(name)) {
-            return imageCache.get(name);
-        }
-        try {
-            String[] extensions = { ".png", ".jpg", ".jpeg" };
-            String[] searchPaths = {
-                    "resources/images/",
-                    "resources/backgrounds/",
-                    "resources/characters/",
-                    "resources/"
-            };
-
-            File file = null;
-            for (String path : searchPaths) {
-                for (String ext : extensions) {
-                    File f = new File(path + name + ext);
-                    if (f.exists()) {
-                        file = f;
-                        break;
-                    }
-                }
-                if (file != null)
-                    break;
-            }
-
-            if (file != null) {
-                BufferedImage img = ImageIO.read(file);
-                imageCache.put(name, img);
-                return img;
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return null;
+        java.util.concurrent.CompletableFuture<BufferedImage> image = ImageLoader.getInstance().request(name);
+        if (!image.isDone())
+            return null; // Decoded off the EDT; the animation timer paints it once ready
+        return image.join();
     }
 
     // --- Inner Panel Class ---
@@ -0,0 +1,103 @@
+package com.vnengine.ui;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * One background layer scaled once to a target height and cut into square
+ * tiles. Drawing only blits the tiles that intersect the visible area, so a
+ * wide panorama costs the same per frame as a screen-sized image.
+ */
+class TiledLayer {
+    static final int TILE_SIZE = 256;
+
+    private final BufferedImage[][] tiles; // [column][row]
+    private final int width;
+    private final double density; // Tile pixels per drawn pixel
+
+    /**
+     * @param src     decoded source image
+     * @param height  height the layer covers on screen, in pixels
+     * @param density oversampling factor for zoomed cameras (1.0 = screen size)
+     */
+    TiledLayer(BufferedImage src, int height, double density) {
+        int pixelH = Math.max(1, (int) Math.round(height * density));
+        int pixelW = Math.max(1, (int) Math.round((double) src.getWidth() / src.getHeight() * pixelH));
+        this.width = pixelW;
+        this.density = density;
+
+        int cols = (pixelW + TILE_SIZE - 1) / TILE_SIZE;
+        int rows = (pixelH + TILE_SIZE - 1) / TILE_SIZE;
+        tiles = new BufferedImage[cols][rows];
+
+        double sx = (double) src.getWidth() / pixelW;
+        double sy = (double) src.getHeight() / pixelH;
+        for (int c = 0; c < cols; c++) {
+            for (int r = 0; r < rows; r++) {
+                int tx = c * TILE_SIZE;
+                int ty = r * TILE_SIZE;
+                int tw = Math.min(TILE_SIZE, pixelW - tx);
+                int th = Math.min(TILE_SIZE, pixelH - ty);
+                BufferedImage tile = new BufferedImage(tw, th, BufferedImage.TYPE_INT_ARGB_PRE);
+                Graphics2D g = tile.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(src, 0, 0, tw, th,
+                        (int) (tx * sx), (int) (ty * sy), (int) ((tx + tw) * sx), (int) ((ty + th) * sy), null);
+                g.dispose();
+                tiles[c][r] = tile;
+            }
+        }
+    }
+
+    /** Drawn width of the whole layer in screen pixels. */
+    double getDrawWidth() {
+        return width / density;
+    }
+
+    /**
+     * Draw the layer repeated horizontally, starting at {@code offsetX} in
+     * layer space. {@code view} maps layer space to panel space and is used to
+     * cull tiles outside the {@code viewport} panel rectangle.
+     */
+    void draw(Graphics2D g, AffineTransform view, double offsetX, Rectangle viewport) {
+        Rectangle2D visible;
+        try {
+            visible = view.createInverse().createTransformedShape(viewport).getBounds2D();
+        } catch (NoninvertibleTransformException e) {
+            return;
+        }
+
+        double drawW = getDrawWidth();
+        double tileDraw = TILE_SIZE / density;
+
+        // Wrap the offset so the first repetition starts left of the view
+        double start = offsetX % drawW;
+        if (start > visible.getMinX())
+            start -= Math.ceil((start - visible.getMinX()) / drawW) * drawW;
+
+        AffineTransform saved = g.getTransform();
+        for (double base = start; base < visible.getMaxX(); base += drawW) {
+            for (int c = 0; c < tiles.length; c++) {
+                double x = base + c * tileDraw;
+                if (x + tileDraw < visible.getMinX() || x > visible.getMaxX())
+                    continue;
+                for (int r = 0; r < tiles[c].length; r++) {
+                    double y = r * tileDraw;
+                    if (y + tileDraw < visible.getMinY() || y > visible.getMaxY())
+                        continue;
+                    g.setTransform(saved);
+                    g.transform(view);
+                    g.translate(x, y);
+                    g.scale(1 / density, 1 / density);
+                    g.drawImage(tiles[c][r], 0, 0, null);
+                }
+            }
+        }
+        g.setTransform(saved);
+    }
+}
@@ -0,0 +1,116 @@
+package com.vnengine.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Custom easing curve, defined like CSS {@code cubic-bezier(x1, y1, x2, y2)}:
+ * a cubic Bezier from (0, 0) to (1, 1) with control points (x1, y1) and
+ * (x2, y2). The curve is solved for x once, when it is created, into the
+ * same kind of lookup table the built-in curves use. Instances are
+ * immutable; create them once and reuse them.
+ */
+public class CubicBezier implements EasingFunction {
+    // Scripts name the same curve over and over; solve each one only once
+    private static final Map<String, CubicBezier> parsed = new ConcurrentHashMap<>();
+
+    private final float x1, y1, x2, y2;
+    private final float[] table = new float[Easing.TABLE_SIZE + 1];
+
+    public CubicBezier(float x1, float y1, float x2, float y2) {
+        // x must stay monotonic for the curve to be a function of time
+        this.x1 = Math.max(0f, Math.min(1f, x1));
+        this.y1 = y1;
+        this.x2 = Math.max(0f, Math.min(1f, x2));
+        this.y2 = y2;
+
+        double s = 0;
+        for (int i = 0; i <= Easing.TABLE_SIZE; i++) {
+            double x = (double) i / Easing.TABLE_SIZE;
+            s = solve(x, s); // The previous root is a good first guess
+            table[i] = (float) bezier(s, this.y1, this.y2);
+        }
+    }
+
+    /**
+     * Parse {@code "cubic-bezier(x1, y1, x2, y2)"}.
+     *
+     * @throws IllegalArgumentException if the text is malformed
+     */
+    public static CubicBezier parse(String text) {
+        String key = text.replace(" ", "").toLowerCase();
+        CubicBezier cached = parsed.get(key);
+        if (cached != null)
+            return cached;
+
+        if (!key.startsWith("cubic-bezier(") || !key.endsWith(")"))
+            throw new IllegalArgumentException("Not a cubic-bezier: " + text);
+        String[] parts = key.substring(13, key.length() - 1).split(",");
+        if (parts.length != 4)
+            throw new IllegalArgumentException("cubic-bezier needs 4 numbers: " + text);
+        CubicBezier curve;
+        try {
+            curve = new CubicBezier(Float.parseFloat(parts[0]), Float.parseFloat(parts[1]),
+                    Float.parseFloat(parts[2]), Float.parseFloat(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad cubic-bezier: " + text);
+        }
+        if (parsed.size() < 256) { // Bounded, in case a script builds curves on the fly
+            parsed.put(key, curve);
+        }
+        return curve;
+    }
+
+    @Override
+    public float apply(float t) {
+        if (t <= 0f)
+            return 0f;
+        if (t >= 1f)
+            return 1f;
+        return Easing.lookup(table, t);
+    }
+
+    // Curve parameter s where the x coordinate equals x
+    private double solve(double x, double guess) {
+        double s = guess;
+        for (int i = 0; i < 8; i++) { // Newton's method, usually done in a few steps
+            double error = bezier(s, x1, x2) - x;
+            if (Math.abs(error) < 1e-7)
+                return s;
+            double slope = slope(s, x1, x2);
+            if (Math.abs(slope) < 1e-6)
+                break;
+            s -= error / slope;
+        }
+
+        // Flat spots: fall back to bisection
+        double lo = 0, hi = 1;
+        s = x;
+        for (int i = 0; i < 40; i++) {
+            double value = bezier(s, x1, x2);
+            if (Math.abs(value - x) < 1e-7)
+                break;
+            if (value < x)
+                lo = s;
+            else
+                hi = s;
+            s = (lo + hi) / 2;
+        }
+        return s;
+    }
+
+    private static double bezier(double s, double p1, double p2) {
+        double inv = 1 - s;
+        return 3 * inv * inv * s * p1 + 3 * inv * s * s * p2 + s * s * s;
+    }
+
+    private static double slope(double s, double p1, double p2) {
+        double inv = 1 - s;
+        return 3 * inv * inv * p1 + 6 * inv * s * (p2 - p1) + 3 * s * s * (1 - p2);
+    }
+
+    @Override
+    public String toString() {
+        return "cubic-bezier(" + x1 + ", " + y1 + ", " + x2 + ", " + y2 + ")";
+    }
+}
@@ -1,6 +1,12 @@
 package com.vnengine.util;
 
-public enum Easing {
+/**
+ * Built-in easing curves. Each curve is sampled once into a lookup table, so
+ * {@link #apply(float)} costs a table read and a linear interpolation no
+ * matter how expensive the curve is. See {@link CubicBezier} for custom
+ * curves.
+ */
+public enum Easing implements EasingFunction {
     LINEAR,
     EASE_IN_QUAD,
     EASE_OUT_QUAD,
@@ -12,7 +18,39 @@ public enum Easing {
     EASE_OUT_ELASTIC,
     EASE_IN_OUT_SINE;
 
+    static final int TABLE_SIZE = 1024;
+
+    private float[] table; // TABLE_SIZE + 1 samples over [0, 1]
+
+    static {
+        // Built after all constants exist; evaluate() switches over them
+        for (Easing easing : values()) {
+            float[] samples = new float[TABLE_SIZE + 1];
+            for (int i = 0; i <= TABLE_SIZE; i++) {
+                samples[i] = easing.evaluate((float) i / TABLE_SIZE);
+            }
+            easing.table = samples;
+        }
+    }
+
+    @Override
     public float apply(float t) {
+        if (t <= 0f || t >= 1f)
+            return evaluate(t); // Ends are exact, and out-of-range input keeps its old behavior
+        return lookup(table, t);
+    }
+
+    static float lookup(float[] table, float t) {
+        float pos = t * TABLE_SIZE;
+        int i = (int) pos;
+        return table[i] + (table[i + 1] - table[i]) * (pos - i);
+    }
+
+    /**
+     * Exact value of the curve, computed directly. Used to build the lookup
+     * table; prefer {@link #apply(float)}.
+     */
+    public float evaluate(float t) {
         switch (this) {
             case LINEAR:
                 return t;
@@ -0,0 +1,22 @@
+package com.vnengine.util;
+
+/**
+ * Maps linear animation progress in [0, 1] to eased progress.
+ */
+public interface EasingFunction {
+    float apply(float t);
+
+    /**
+     * Look up an easing by name: an {@link Easing} constant such as
+     * {@code "EASE_OUT_BOUNCE"} (any case), or a CSS-style
+     * {@code "cubic-bezier(x1, y1, x2, y2)"}.
+     *
+     * @throws IllegalArgumentException if the name is not recognized
+     */
+    static EasingFunction forName(String name) {
+        String trimmed = name.trim();
+        if (trimmed.toLowerCase().startsWith("cubic-bezier("))
+            return CubicBezier.parse(trimmed);
+        return Easing.valueOf(trimmed.toUpperCase());
+    }
+}